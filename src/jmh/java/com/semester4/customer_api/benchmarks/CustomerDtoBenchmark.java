@@ -0,0 +1,82 @@
+package com.semester4.customer_api.benchmarks;
+
+import com.semester4.customer_api.dto.AddressDTO;
+import com.semester4.customer_api.dto.CustomerDTO;
+import com.semester4.customer_api.dto.CustomerMapper;
+import com.semester4.customer_api.dto.FullNameDTO;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.Gender;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import jakarta.validation.ValidatorFactory;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping and bean validation of the create request, i.e. the work saveCustomer does before touching the database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class CustomerDtoBenchmark {
+
+    private final CustomerMapper customerMapper = new CustomerMapper();
+    private ValidatorFactory validatorFactory;
+    private Validator validator;
+    private CustomerDTO individual;
+    private CustomerDTO corporate;
+    private CustomerDTO weakPassword;
+
+    @Setup
+    public void setUp() {
+        validatorFactory = Validation.buildDefaultValidatorFactory();
+        validator = validatorFactory.getValidator();
+
+        individual = customer(CustomerDTO.AccountType.INDIVIDUAL, "Password1");
+        corporate = customer(CustomerDTO.AccountType.CORPORATE, "Password1");
+        weakPassword = customer(CustomerDTO.AccountType.INDIVIDUAL, "password");
+    }
+
+    @TearDown
+    public void tearDown() {
+        validatorFactory.close();
+    }
+
+    @Benchmark
+    public Customer mapIndividual() {
+        return customerMapper.toCustomer(individual);
+    }
+
+    @Benchmark
+    public Customer mapCorporate() {
+        return customerMapper.toCustomer(corporate);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDTO>> validateValid() {
+        return validator.validate(individual);
+    }
+
+    @Benchmark
+    public Set<ConstraintViolation<CustomerDTO>> validateWeakPassword() {
+        return validator.validate(weakPassword);
+    }
+
+    static CustomerDTO customer(CustomerDTO.AccountType accountType, String password) {
+        return CustomerDTO.builder()
+                .fullName(FullNameDTO.builder().firstName("John").lastName("Doe").middleName("M").build())
+                .email("john.doe@example.com")
+                .password(password)
+                .phoneNumber("1234567890")
+                .address(new AddressDTO(null, "123", "Main St", "City", "State", "12345", "Country", null))
+                .accountType(accountType)
+                .gender(Gender.MALE)
+                .build();
+    }
+}
@@ -0,0 +1,116 @@
+package com.semester4.customer_api.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.semester4.customer_api.dto.CustomerResponse;
+import com.semester4.customer_api.dto.ResponseWrapper;
+import com.semester4.customer_api.models.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encode and decode cost of the read responses in each negotiable format, against the plain JSON baseline.
+ * Payload sizes are printed once per trial.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PayloadFormatBenchmark {
+
+    @Param({"json", "json-gzip", "cbor", "smile"})
+    private String format;
+
+    // a ResponseWrapper lookup, or a 1000 customer page of GET /customers/v1.0
+    @Param({"lookup", "page"})
+    private String payload;
+
+    private ObjectMapper objectMapper;
+    private boolean gzip;
+    private Object response;
+    private byte[] encoded;
+
+    @Setup
+    public void setUp() throws IOException {
+        // same settings as spring.jackson.* in application.properties
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder.json();
+        objectMapper = switch (format) {
+            case "json", "json-gzip" -> builder.build();
+            case "cbor" -> builder.factory(new CBORFactory()).build();
+            case "smile" -> builder.factory(new SmileFactory()).build();
+            default -> throw new IllegalArgumentException(format);
+        };
+        gzip = format.equals("json-gzip");
+        response = payload.equals("lookup")
+                ? new ResponseWrapper<>(CustomerResponse.of(individual(1234567890L)), "Customer retrieved successfully")
+                : page(1000).stream().map(CustomerResponse::of).toList();
+        encoded = encode();
+        System.out.printf("%n%s %s: %d bytes%n", format, payload, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (OutputStream out = gzip ? new GZIPOutputStream(bytes) : bytes) {
+            objectMapper.writeValue(out, response);
+        }
+        return bytes.toByteArray();
+    }
+
+    @Benchmark
+    public JsonNode decode() throws IOException {
+        try (InputStream in = gzip
+                ? new GZIPInputStream(new ByteArrayInputStream(encoded))
+                : new ByteArrayInputStream(encoded)) {
+            return objectMapper.readTree(in);
+        }
+    }
+
+    private static List<Customer> page(int size) {
+        List<Customer> customers = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            long accountNo = 1_000_000_000L + i;
+            customers.add(i % 2 == 0 ? individual(accountNo) : Corporate.builder()
+                    .accountNo(accountNo)
+                    .fullName(FullName.builder().firstName("Acme" + i).lastName("Holdings").middleName("C").build())
+                    .email("contact" + i + "@acme.example.com")
+                    .password("Password1")
+                    .phoneNumber(5_550_000_000L + i)
+                    .companyType(CompanyType.PRIVATE)
+                    .changeVersion(accountNo)
+                    .version(3L)
+                    .build());
+        }
+        return customers;
+    }
+
+    private static Individual individual(long accountNo) {
+        return Individual.builder()
+                .accountNo(accountNo)
+                .fullName(FullName.builder().firstName("Jane").lastName("Doe" + accountNo % 1000).middleName("M").build())
+                .email("jane" + accountNo + "@example.com")
+                .password("Password1")
+                .phoneNumber(5_550_000_000L + accountNo % 1000)
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.of(1990, 1, 1).plusDays(accountNo % 10_000))
+                .changeVersion(accountNo)
+                .version(3L)
+                .build();
+    }
+}
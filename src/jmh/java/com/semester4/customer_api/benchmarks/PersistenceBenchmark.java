@@ -0,0 +1,121 @@
+package com.semester4.customer_api.benchmarks;
+
+import com.semester4.customer_api.CustomerApiApplication;
+import com.semester4.customer_api.dto.CursorPage;
+import com.semester4.customer_api.dto.CustomerSummary;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.services.AccountNoAllocator;
+import com.semester4.customer_api.services.CustomerService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Account number generation and the repository calls behind the customer endpoints, against embedded H2,
+ * for both customer storage layouts.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceBenchmark {
+
+    private static final int CUSTOMERS = 10_000;
+
+    // "joined" is the default mapping, "single-table" activates the profile of that name
+    @Param({"joined", "single-table"})
+    private String layout;
+
+    private ConfigurableApplicationContext context;
+    private CustomerRepository customerRepository;
+    private CustomerService customerService;
+    private AccountNoAllocator accountNoAllocator;
+    private long firstAccountNo;
+    private final AtomicLong inserted = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(CustomerApiApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test", layout)
+                .properties("logging.level.root=WARN")
+                .run();
+        customerRepository = context.getBean(CustomerRepository.class);
+        customerService = context.getBean(CustomerService.class);
+        accountNoAllocator = context.getBean(AccountNoAllocator.class);
+
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(customer("seed" + i + "@example.com"));
+        }
+        customerService.addCustomers(customers, List.of());
+        firstAccountNo = customerRepository.findMaxAccountNo() - CUSTOMERS + 1;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long generateAccountNoSecureRandom() {
+        // the generator used before AccountNoAllocator, kept as the baseline
+        long min = 1_000_000_000L;
+        long max = 9_999_999_999L;
+        SecureRandom random = new SecureRandom();
+        return min + (long) (random.nextDouble() * (max - min));
+    }
+
+    @Benchmark
+    public long generateAccountNoAllocator() {
+        return accountNoAllocator.next();
+    }
+
+    @Benchmark
+    public Optional<Customer> findById() {
+        return customerRepository.findById(firstAccountNo + ThreadLocalRandom.current().nextInt(CUSTOMERS));
+    }
+
+    @Benchmark
+    public CursorPage<Customer> readPage() {
+        return customerService.getCustomers(firstAccountNo + ThreadLocalRandom.current().nextInt(CUSTOMERS), 20);
+    }
+
+    // projection reads against the entity reads above; they skip the Individual/Corporate outer joins
+    @Benchmark
+    public Optional<CustomerSummary> findSummary() {
+        return customerRepository.findSummary(firstAccountNo + ThreadLocalRandom.current().nextInt(CUSTOMERS));
+    }
+
+    @Benchmark
+    public CursorPage<?> readSummaryPage() {
+        return customerService.getCustomerSummaries(null, firstAccountNo + ThreadLocalRandom.current().nextInt(CUSTOMERS), 20);
+    }
+
+    @Benchmark
+    public Customer addCustomer() {
+        return customerService.addCustomer(customer("bench" + inserted.incrementAndGet() + "@example.com"));
+    }
+
+    private static Customer customer(String email) {
+        return Customer.builder()
+                .fullName(FullName.builder().firstName("Bench").lastName("Mark").middleName("B").build())
+                .email(email)
+                .password("Password1")
+                .phoneNumber(1234567890L)
+                .build();
+    }
+}
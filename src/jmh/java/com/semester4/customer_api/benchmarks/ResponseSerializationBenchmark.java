@@ -0,0 +1,91 @@
+package com.semester4.customer_api.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semester4.customer_api.dto.CustomerResponse;
+import com.semester4.customer_api.dto.ResponseWrapper;
+import com.semester4.customer_api.models.*;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Jackson serialization of the ResponseWrapper bodies returned by the lookup and create endpoints: the entities
+ * as they used to be sent, against the CustomerResponse records and their hand-written serializers.
+ * Like the message converter, each response is written through a generator onto an output stream, here one that
+ * discards it, so the bytes allocated per response (gc profiler, the default of the benchmarks profile) are those of
+ * serializing rather than of collecting the output in a byte array.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ResponseSerializationBenchmark {
+
+    // discards the response and, unlike OutputStream.nullOutputStream(), can be closed any number of times
+    private final OutputStream out = new OutputStream() {
+        @Override
+        public void write(int b) {
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+        }
+    };
+    private ObjectMapper objectMapper;
+    private ResponseWrapper<Customer> customerResponse;
+    private ResponseWrapper<Customer> individualResponse;
+    private ResponseWrapper<CustomerResponse> customerRecordResponse;
+    private ResponseWrapper<CustomerResponse> individualRecordResponse;
+
+    @Setup
+    public void setUp() {
+        // failOnEmptyBeans(false) is what serializing entities directly required
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+                .failOnEmptyBeans(false)
+                .build();
+
+        FullName fullName = FullName.builder().firstName("John").lastName("Doe").middleName("M").build();
+        customerResponse = new ResponseWrapper<>(
+                new Customer(1234567890L, fullName, "john.doe@example.com", "Password1", 1234567890L),
+                "Customer retrieved successfully");
+        individualResponse = new ResponseWrapper<>(Individual.builder()
+                .accountNo(1234567891L)
+                .fullName(fullName)
+                .email("jane.doe@example.com")
+                .password("Password1")
+                .phoneNumber(1234567891L)
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.of(1990, 1, 1))
+                .build(), "Customer retrieved successfully");
+        customerRecordResponse = new ResponseWrapper<>(CustomerResponse.of(customerResponse.getData()),
+                customerResponse.getMessage());
+        individualRecordResponse = new ResponseWrapper<>(CustomerResponse.of(individualResponse.getData()),
+                individualResponse.getMessage());
+    }
+
+    @Benchmark
+    public void serializeCustomer() throws IOException {
+        objectMapper.writeValue(out, customerResponse);
+    }
+
+    @Benchmark
+    public void serializeIndividual() throws IOException {
+        objectMapper.writeValue(out, individualResponse);
+    }
+
+    @Benchmark
+    public void serializeCustomerRecord() throws IOException {
+        objectMapper.writeValue(out, customerRecordResponse);
+    }
+
+    @Benchmark
+    public void serializeIndividualRecord() throws IOException {
+        objectMapper.writeValue(out, individualRecordResponse);
+    }
+}
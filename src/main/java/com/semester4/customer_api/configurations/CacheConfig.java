@@ -0,0 +1,16 @@
+package com.semester4.customer_api.configurations;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+// wrap the transaction interceptor, so entries are evicted and put only once the write has committed
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+
+    // customers by account number, sized and expired through spring.cache.caffeine.spec
+    public static final String CUSTOMERS = "customers";
+    // customer versions by account number, answering conditional GETs without loading the customer
+    public static final String CUSTOMER_VERSIONS = "customerVersions";
+}
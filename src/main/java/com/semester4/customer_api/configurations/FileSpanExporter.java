@@ -0,0 +1,74 @@
+package com.semester4.customer_api.configurations;
+
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.data.SpanData;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+// appends each exported span as a line of JSON, a local stand-in for the OTLP collector
+public class FileSpanExporter implements SpanExporter {
+
+    private static final Logger logger = Logger.getLogger(FileSpanExporter.class.getName());
+
+    private final Path file;
+    // spans are exported on request threads, which may be virtual, so blocking writes must not hold a monitor
+    private final ReentrantLock lock = new ReentrantLock();
+
+    public FileSpanExporter(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public CompletableResultCode export(Collection<SpanData> spans) {
+        StringBuilder lines = new StringBuilder();
+        for (SpanData span : spans) {
+            lines.append("{\"traceId\":\"").append(span.getTraceId())
+                    .append("\",\"spanId\":\"").append(span.getSpanId())
+                    .append("\",\"parentSpanId\":\"").append(span.getParentSpanId())
+                    .append("\",\"name\":\"").append(escape(span.getName()))
+                    .append("\",\"durationMicros\":")
+                    .append(TimeUnit.NANOSECONDS.toMicros(span.getEndEpochNanos() - span.getStartEpochNanos()))
+                    .append(",\"status\":\"").append(span.getStatus().getStatusCode())
+                    .append("\"}\n");
+        }
+        lock.lock();
+        try {
+            Path parent = file.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            Files.writeString(file, lines, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+            return CompletableResultCode.ofSuccess();
+        } catch (IOException e) {
+            logger.log(Level.WARNING, "Could not write " + spans.size() + " spans to " + file, e);
+            return CompletableResultCode.ofFailure();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public CompletableResultCode flush() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        return CompletableResultCode.ofSuccess();
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
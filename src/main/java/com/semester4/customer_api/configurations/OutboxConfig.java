@@ -0,0 +1,22 @@
+package com.semester4.customer_api.configurations;
+
+import com.semester4.customer_api.services.FileOutboxSink;
+import com.semester4.customer_api.services.LoggingOutboxSink;
+import com.semester4.customer_api.services.OutboxSink;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+
+@Configuration
+public class OutboxConfig {
+
+    // define an OutboxSink bean to publish customer changes elsewhere, e.g. to a message broker
+    @Bean
+    @ConditionalOnMissingBean(OutboxSink.class)
+    public OutboxSink outboxSink(@Value("${customer.outbox.file:}") String file) {
+        return file.isBlank() ? new LoggingOutboxSink() : new FileOutboxSink(Path.of(file));
+    }
+}
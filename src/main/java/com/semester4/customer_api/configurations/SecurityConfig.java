@@ -2,9 +2,14 @@ package com.semester4.customer_api.configurations;
 
 
 
+import com.semester4.customer_api.security.CachingAuthenticationProvider;
+import com.semester4.customer_api.security.CredentialCache;
+import com.semester4.customer_api.security.CredentialCacheInvalidatingUserDetailsManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.Customizer;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -13,7 +18,6 @@ import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
-import org.springframework.security.provisioning.InMemoryUserDetailsManager;
 import org.springframework.security.web.SecurityFilterChain;
 
 @Configuration
@@ -33,15 +37,22 @@ public class SecurityConfig {
                                 "/swagger-ui.html"
                         ).permitAll()
 
-                        // Actuator
+                        // Actuator, except starting a storage migration, an export or an import
+                        .requestMatchers(HttpMethod.POST, "/actuator/customerstorage").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/actuator/customerexport").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/actuator/customerimport").authenticated()
                         .requestMatchers("/actuator/**").permitAll()
 
-                        // Public GET endpoints
+                        // Public GET endpoints, except the full export
+                        .requestMatchers(HttpMethod.GET, "/customers/v1.0/export").authenticated()
                         .requestMatchers(HttpMethod.GET, "/customers/v1.0/**").permitAll()
 
                         // Protected endpoints
                         .requestMatchers(HttpMethod.POST, "/customers/v1.0").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/customers/v1.0/batch").authenticated()
+                        .requestMatchers(HttpMethod.POST, "/customers/v1.0/batch/delete").authenticated()
                         .requestMatchers(HttpMethod.PUT, "/customers/v1.0").authenticated()
+                        .requestMatchers(HttpMethod.PATCH, "/customers/v1.0/*").authenticated()
                         .requestMatchers(HttpMethod.DELETE, "/customers/v1.0").authenticated()
 
                         // Everything else requires auth
@@ -58,14 +69,23 @@ public class SecurityConfig {
     }
 
     @Bean
-    public UserDetailsService userDetailsService() {
+    public UserDetailsService userDetailsService(CredentialCache credentialCache) {
         UserDetails user = User
                 .withUsername("admin")
                 .password(passwordEncoder().encode("1234"))
                 .roles("USER")
                 .build();
 
-        return new InMemoryUserDetailsManager(user);
+        return new CredentialCacheInvalidatingUserDetailsManager(credentialCache, user);
+    }
+
+    // BCrypt runs once per credential; repeat requests are answered from the credential cache
+    @Bean
+    public AuthenticationProvider authenticationProvider(UserDetailsService userDetailsService,
+                                                         CredentialCache credentialCache) {
+        DaoAuthenticationProvider daoAuthenticationProvider = new DaoAuthenticationProvider(passwordEncoder());
+        daoAuthenticationProvider.setUserDetailsService(userDetailsService);
+        return new CachingAuthenticationProvider(daoAuthenticationProvider, credentialCache);
     }
 
 
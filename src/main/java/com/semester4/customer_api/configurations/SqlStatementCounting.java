@@ -0,0 +1,100 @@
+package com.semester4.customer_api.configurations;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Wraps a DataSource so that every statement executed through its connections is reported to the
+ * {@link SqlStatementScope} of the calling thread, with its JDBC time and the rows it read or wrote.
+ */
+final class SqlStatementCounting {
+
+    private SqlStatementCounting() {
+    }
+
+    static DataSource wrap(DataSource dataSource) {
+        // keeps a pool's close() visible, which is how the context shuts it down
+        Class<?>[] types = dataSource instanceof AutoCloseable
+                ? new Class<?>[]{DataSource.class, AutoCloseable.class}
+                : new Class<?>[]{DataSource.class};
+        return (DataSource) Proxy.newProxyInstance(SqlStatementCounting.class.getClassLoader(), types,
+                new Handler(dataSource, null));
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(SqlStatementCounting.class.getClassLoader(),
+                new Class<?>[]{type}, handler));
+    }
+
+    private record Handler(Object target, String sql) implements InvocationHandler {
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            String name = method.getName();
+            switch (name) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            boolean execute = target instanceof Statement && name.startsWith("execute") && SqlStatementScope.isActive();
+            long start = execute ? System.nanoTime() : 0;
+            Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+            if (execute) {
+                String executed = args != null && args.length > 0 && args[0] instanceof String text ? text : sql;
+                int statements = result instanceof int[] batch ? batch.length
+                        : result instanceof long[] batch ? batch.length : 1;
+                SqlStatementScope.statementExecuted(executed, statements, System.nanoTime() - start,
+                        updatedRows(result));
+            }
+
+            if (result instanceof Connection connection && target instanceof DataSource) {
+                return proxy(Connection.class, new Handler(connection, null));
+            }
+            if (result instanceof Statement statement && target instanceof Connection) {
+                // createStatement() has no SQL yet, prepareStatement(sql) and prepareCall(sql) have
+                String prepared = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                return proxy(method.getReturnType().asSubclass(Statement.class), new Handler(statement, prepared));
+            }
+            if (result instanceof ResultSet resultSet && target instanceof Statement
+                    && (name.equals("executeQuery") || name.equals("getResultSet"))) {
+                return proxy(ResultSet.class, new Handler(resultSet, null));
+            }
+            if (target instanceof ResultSet && name.equals("next") && Boolean.TRUE.equals(result)) {
+                SqlStatementScope.rowRead();
+            }
+            return result;
+        }
+
+        private static long updatedRows(Object result) {
+            if (result instanceof Number count) {
+                return Math.max(count.longValue(), 0);
+            }
+            long rows = 0;
+            if (result instanceof int[] counts) {
+                for (int count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            } else if (result instanceof long[] counts) {
+                for (long count : counts) {
+                    rows += Math.max(count, 0);
+                }
+            }
+            return rows;
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.semester4.customer_api.configurations;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Publishes the SQL statements, JDBC round trips, rows and JDBC time of each request and {@code CustomerService}
+ * call as the customer.sql.statements, customer.sql.round-trips, customer.sql.rows and customer.sql.time meters,
+ * tagged with the scope (request or service) and the operation, i.e. the endpoint pattern or the service method.
+ * <p>
+ * A request over the statement budget is logged, and so is every query it repeated often enough to be a likely
+ * N+1, such as loading the customer of each address one at a time.
+ */
+@Component
+public class SqlStatementMetrics {
+
+    private static final Logger logger = Logger.getLogger(SqlStatementMetrics.class.getName());
+    static final String REQUEST = "request";
+    static final String SERVICE = "service";
+
+    private final MeterRegistry meterRegistry;
+    private final int statementBudget;
+    private final int repeatThreshold;
+
+    public SqlStatementMetrics(MeterRegistry meterRegistry,
+                               @Value("${customer.sql.statement-budget:20}") int statementBudget,
+                               @Value("${customer.sql.repeat-threshold:5}") int repeatThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.statementBudget = statementBudget;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    void record(String scope, String operation, SqlStatementScope statements) {
+        Tags tags = Tags.of("scope", scope, "operation", operation);
+        DistributionSummary.builder("customer.sql.statements")
+                .description("SQL statements executed per call")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statements.getStatements());
+        DistributionSummary.builder("customer.sql.round-trips")
+                .description("JDBC round trips per call, a batch of statements being one")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statements.getRoundTrips());
+        DistributionSummary.builder("customer.sql.rows")
+                .description("Rows read or written by the SQL statements of a call")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statements.getRows());
+        Timer.builder("customer.sql.time")
+                .description("JDBC time spent executing the SQL statements of a call")
+                .tags(tags)
+                .register(meterRegistry)
+                .record(statements.getNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    void recordRequest(String operation, SqlStatementScope statements) {
+        record(REQUEST, operation, statements);
+
+        if (statements.getStatements() > statementBudget) {
+            logger.warning(operation + " executed " + statements.getStatements() + " SQL statements, over the budget of "
+                    + statementBudget + " (" + statements.getRows() + " rows, "
+                    + TimeUnit.NANOSECONDS.toMillis(statements.getNanos()) + " ms)");
+        }
+        for (Map.Entry<String, Integer> repeated : statements.repeatedQueries(repeatThreshold).entrySet()) {
+            Counter.builder("customer.sql.repeated")
+                    .description("Queries repeated often enough within one request to be a likely N+1")
+                    .tag("operation", operation)
+                    .register(meterRegistry)
+                    .increment();
+            logger.warning("Likely N+1 in " + operation + ": " + repeated.getValue() + " executions of "
+                    + repeated.getKey());
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.semester4.customer_api.configurations;
+
+import com.semester4.customer_api.services.CustomerService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.util.ReflectionUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.lang.reflect.Method;
+
+/**
+ * Counts the SQL statements of every request and {@link CustomerService} call, see {@link SqlStatementMetrics}.
+ * Statements are seen at the JDBC level, where their rows and execution time are known as well.
+ */
+@Configuration
+public class SqlStatementMetricsConfig {
+
+    @Bean
+    static BeanPostProcessor sqlStatementCountingDataSource() {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                return bean instanceof DataSource dataSource ? SqlStatementCounting.wrap(dataSource) : bean;
+            }
+        };
+    }
+
+    @Bean
+    FilterRegistrationBean<OncePerRequestFilter> sqlStatementRequestFilter(SqlStatementMetrics metrics) {
+        OncePerRequestFilter filter = new OncePerRequestFilter() {
+            @Override
+            protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                            FilterChain chain) throws ServletException, IOException {
+                SqlStatementScope scope = SqlStatementScope.open();
+                try {
+                    chain.doFilter(request, response);
+                } finally {
+                    scope.close();
+                    // the endpoint pattern is only known once the request has been dispatched
+                    Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+                    metrics.recordRequest(request.getMethod() + " " + (pattern == null ? "UNKNOWN" : pattern), scope);
+                }
+            }
+        };
+        FilterRegistrationBean<OncePerRequestFilter> registration = new FilterRegistrationBean<>(filter);
+        // ahead of security and the rest of the chain, so every statement of the request is counted
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    // infrastructure role, so the proxy creator behind @Transactional and @Cacheable applies it too
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor customerServiceSqlStatementAdvisor(ObjectProvider<SqlStatementMetrics> metrics) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return CustomerService.class.isAssignableFrom(targetClass)
+                        && ReflectionUtils.findMethod(CustomerService.class, method.getName(),
+                        method.getParameterTypes()) != null;
+            }
+        };
+        MethodInterceptor interceptor = invocation -> {
+            SqlStatementScope scope = SqlStatementScope.open();
+            try {
+                return invocation.proceed();
+            } finally {
+                scope.close();
+                metrics.getObject().record(SqlStatementMetrics.SERVICE,
+                        "CustomerService." + invocation.getMethod().getName(), scope);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        // outside the cache and transaction interceptors, so a commit's flush is counted and a cache hit shows 0
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
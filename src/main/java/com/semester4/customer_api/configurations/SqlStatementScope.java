@@ -0,0 +1,111 @@
+package com.semester4.customer_api.configurations;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements, JDBC round trips, rows and JDBC time of one request or service call on the current thread. Scopes
+ * nest, and a statement counts toward every scope open on its thread. A JDBC batch is one round trip carrying
+ * several statements.
+ */
+final class SqlStatementScope {
+
+    private static final ThreadLocal<SqlStatementScope> CURRENT = new ThreadLocal<>();
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern PARAMETER_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)+\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private final SqlStatementScope parent;
+    private int statements;
+    private int roundTrips;
+    private long rows;
+    private long nanos;
+    // executions by statement shape, i.e. the SQL with its literals and parameter lists collapsed
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    private SqlStatementScope(SqlStatementScope parent) {
+        this.parent = parent;
+    }
+
+    static SqlStatementScope open() {
+        SqlStatementScope scope = new SqlStatementScope(CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    void close() {
+        if (CURRENT.get() == this) {
+            if (parent == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(parent);
+            }
+        }
+    }
+
+    static boolean isActive() {
+        return CURRENT.get() != null;
+    }
+
+    static void statementExecuted(String sql, int statements, long nanos, long rows) {
+        String shape = null;
+        for (SqlStatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (shape == null) {
+                shape = shape(sql);
+            }
+            scope.statements += statements;
+            scope.roundTrips++;
+            scope.rows += rows;
+            scope.nanos += nanos;
+            scope.shapes.merge(shape, 1, Integer::sum);
+        }
+    }
+
+    static void rowRead() {
+        for (SqlStatementScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.rows++;
+        }
+    }
+
+    int getStatements() {
+        return statements;
+    }
+
+    int getRoundTrips() {
+        return roundTrips;
+    }
+
+    long getRows() {
+        return rows;
+    }
+
+    long getNanos() {
+        return nanos;
+    }
+
+    /**
+     * @return the SELECT shapes executed at least threshold times, with their execution counts
+     */
+    Map<String, Integer> repeatedQueries(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        shapes.entrySet().stream()
+                .filter(shape -> shape.getValue() >= threshold && shape.getKey().regionMatches(true, 0, "select", 0, 6))
+                .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+                .forEach(shape -> repeated.put(shape.getKey(), shape.getValue()));
+        return repeated;
+    }
+
+    static String shape(String sql) {
+        if (sql == null) {
+            return "<batch>";
+        }
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = PARAMETER_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
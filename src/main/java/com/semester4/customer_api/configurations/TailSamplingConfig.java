@@ -0,0 +1,64 @@
+package com.semester4.customer_api.configurations;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+import io.opentelemetry.sdk.trace.export.SpanExporter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.tracing.ConditionalOnEnabledTracing;
+import org.springframework.boot.actuate.autoconfigure.tracing.SpanProcessors;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Every request is traced, see management.tracing.sampling.probability, but only the traces the
+ * {@link TailSamplingSpanProcessor} keeps reach the span processors, and through them the exporters.
+ */
+@Configuration
+@ConditionalOnEnabledTracing
+public class TailSamplingConfig {
+
+    // replaces the processors Boot would hand to the tracer provider, its batch processor among them
+    @Bean
+    @ConditionalOnProperty(name = "customer.tracing.tail-sampling.enabled", matchIfMissing = true)
+    SpanProcessors spanProcessors(
+            ObjectProvider<SpanProcessor> spanProcessors,
+            MeterRegistry meterRegistry,
+            @Value("${customer.tracing.tail-sampling.rate:0.01}") double rate,
+            @Value("${customer.tracing.tail-sampling.latency-threshold:500ms}") Duration latencyThreshold,
+            @Value("${customer.tracing.tail-sampling.endpoint-latency-thresholds:}") String endpointLatencyThresholds,
+            @Value("${customer.tracing.tail-sampling.max-traces:10000}") int maxTraces,
+            @Value("${customer.tracing.tail-sampling.max-spans-per-trace:200}") int maxSpansPerTrace,
+            @Value("${customer.tracing.tail-sampling.trace-timeout:1m}") Duration traceTimeout) {
+        SpanProcessor delegate = SpanProcessor.composite(spanProcessors.orderedStream().toList());
+        return SpanProcessors.of(new TailSamplingSpanProcessor(delegate, rate, latencyThreshold,
+                parseThresholds(endpointLatencyThresholds), maxTraces, maxSpansPerTrace, traceTimeout, meterRegistry));
+    }
+
+    @Bean
+    @ConditionalOnExpression("!'${customer.tracing.file:}'.isBlank()")
+    SpanExporter fileSpanExporter(@Value("${customer.tracing.file}") String file) {
+        return new FileSpanExporter(Path.of(file));
+    }
+
+    // comma-separated "METHOD /uri=duration" entries
+    static Map<String, Duration> parseThresholds(String thresholds) {
+        Map<String, Duration> parsed = new HashMap<>();
+        for (String entry : thresholds.split(",")) {
+            int separator = entry.lastIndexOf('=');
+            if (separator > 0) {
+                parsed.put(entry.substring(0, separator).trim(),
+                        DurationStyle.detectAndParse(entry.substring(separator + 1).trim()));
+            }
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,209 @@
+package com.semester4.customer_api.configurations;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.opentelemetry.api.common.AttributeKey;
+import io.opentelemetry.api.trace.SpanContext;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.common.CompletableResultCode;
+import io.opentelemetry.sdk.trace.ReadWriteSpan;
+import io.opentelemetry.sdk.trace.ReadableSpan;
+import io.opentelemetry.sdk.trace.SpanProcessor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Holds the ended spans of each trace until its local root span ends, then passes the whole trace on to the
+ * delegate, normally the batch processor in front of the exporters, if it
+ * <ul>
+ *     <li>has a span with an error status or the root answered with a server error,</li>
+ *     <li>took at least the latency threshold of its endpoint, or</li>
+ *     <li>falls within the sampled rate, decided from the trace id like the ratio-based head sampler.</li>
+ * </ul>
+ * Everything else is dropped before any export work is done. At most maxTraces traces of maxSpansPerTrace spans
+ * are held; spans beyond that, and traces whose root has not ended within the timeout, are dropped and counted
+ * in tracing.tail.spans.dropped. Timed out traces are swept every half timeout, so a trace is held for at most
+ * one and a half timeouts and a full buffer costs a new trace nothing but the size check. Decisions are counted
+ * in tracing.tail.traces.
+ */
+final class TailSamplingSpanProcessor implements SpanProcessor {
+
+    private static final AttributeKey<String> METHOD = AttributeKey.stringKey("method");
+    private static final AttributeKey<String> URI = AttributeKey.stringKey("uri");
+    private static final AttributeKey<String> OUTCOME = AttributeKey.stringKey("outcome");
+
+    private final SpanProcessor delegate;
+    private final long sampledBound;
+    private final Duration latencyThreshold;
+    private final Map<String, Duration> endpointLatencyThresholds;
+    private final int maxTraces;
+    private final int maxSpansPerTrace;
+    private final long traceTimeoutNanos;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentHashMap<String, Trace> traces = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService sweeper = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "tracing-tail-sampling-sweep");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static final class Trace {
+        private final long bufferedAt = System.nanoTime();
+        private final List<ReadableSpan> spans = new ArrayList<>();
+        private boolean error;
+        private boolean decided;
+    }
+
+    TailSamplingSpanProcessor(SpanProcessor delegate, double rate, Duration latencyThreshold,
+                              Map<String, Duration> endpointLatencyThresholds, int maxTraces, int maxSpansPerTrace,
+                              Duration traceTimeout, MeterRegistry meterRegistry) {
+        this.delegate = delegate;
+        this.sampledBound = rate >= 1.0 ? Long.MAX_VALUE : (long) (Math.max(rate, 0.0) * Long.MAX_VALUE);
+        this.latencyThreshold = latencyThreshold;
+        this.endpointLatencyThresholds = Map.copyOf(endpointLatencyThresholds);
+        this.maxTraces = maxTraces;
+        this.maxSpansPerTrace = maxSpansPerTrace;
+        this.traceTimeoutNanos = traceTimeout.toNanos();
+        this.meterRegistry = meterRegistry;
+        long sweepInterval = Math.max(traceTimeoutNanos / 2, 1);
+        sweeper.scheduleWithFixedDelay(this::expireTraces, sweepInterval, sweepInterval, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void onStart(Context parentContext, ReadWriteSpan span) {
+        delegate.onStart(parentContext, span);
+    }
+
+    @Override
+    public boolean isStartRequired() {
+        return delegate.isStartRequired();
+    }
+
+    @Override
+    public void onEnd(ReadableSpan span) {
+        String traceId = span.getSpanContext().getTraceId();
+        SpanContext parent = span.getParentSpanContext();
+        boolean localRoot = !parent.isValid() || parent.isRemote();
+        boolean error = span.toSpanData().getStatus().getStatusCode() == StatusCode.ERROR;
+
+        Trace trace = traces.get(traceId);
+        if (trace == null) {
+            if (localRoot) {
+                // a trace of a single span needs no buffering
+                decide(span, List.of(span), error);
+                return;
+            }
+            if (traces.size() >= maxTraces) {
+                dropped("buffer-full", 1);
+                return;
+            }
+            trace = traces.computeIfAbsent(traceId, id -> new Trace());
+        }
+
+        List<ReadableSpan> spans;
+        synchronized (trace) {
+            if (trace.decided) {
+                dropped("late", 1);
+                return;
+            }
+            trace.error |= error;
+            if (trace.spans.size() < maxSpansPerTrace || localRoot) {
+                trace.spans.add(span);
+            } else {
+                dropped("trace-too-long", 1);
+            }
+            if (!localRoot) {
+                return;
+            }
+            trace.decided = true;
+            error = trace.error;
+            spans = trace.spans;
+        }
+        traces.remove(traceId, trace);
+        decide(span, spans, error);
+    }
+
+    @Override
+    public boolean isEndRequired() {
+        return true;
+    }
+
+    @Override
+    public CompletableResultCode shutdown() {
+        sweeper.shutdownNow();
+        traces.values().forEach(trace -> dropped("shutdown", trace.spans.size()));
+        traces.clear();
+        return delegate.shutdown();
+    }
+
+    @Override
+    public CompletableResultCode forceFlush() {
+        return delegate.forceFlush();
+    }
+
+    private void decide(ReadableSpan root, List<ReadableSpan> spans, boolean error) {
+        String decision;
+        if (error || "SERVER_ERROR".equals(root.getAttribute(OUTCOME))) {
+            decision = "error";
+        } else if (root.getLatencyNanos() >= latencyThreshold(root).toNanos()) {
+            decision = "slow";
+        } else if (sampled(root.getSpanContext().getTraceId())) {
+            decision = "sampled";
+        } else {
+            decision = "dropped";
+        }
+        Counter.builder("tracing.tail.traces")
+                .description("Traces by tail sampling decision")
+                .tag("decision", decision)
+                .register(meterRegistry)
+                .increment();
+
+        if (decision.equals("dropped")) {
+            dropped("sampled-out", spans.size());
+        } else {
+            spans.forEach(delegate::onEnd);
+        }
+    }
+
+    private Duration latencyThreshold(ReadableSpan root) {
+        String method = root.getAttribute(METHOD);
+        String uri = root.getAttribute(URI);
+        String endpoint = method != null && uri != null ? method + " " + uri : root.getName();
+        return endpointLatencyThresholds.getOrDefault(endpoint, latencyThreshold);
+    }
+
+    // the lower half of a random trace id is uniform, so every service keeps or drops the same traces
+    private boolean sampled(String traceId) {
+        return (Long.parseUnsignedLong(traceId, 16, 32, 16) >>> 1) < sampledBound;
+    }
+
+    // drops the traces whose root has not ended in time, e.g. because it ended before some of its children
+    void expireTraces() {
+        long now = System.nanoTime();
+        traces.forEach((traceId, trace) -> {
+            if (now - trace.bufferedAt > traceTimeoutNanos && traces.remove(traceId, trace)) {
+                synchronized (trace) {
+                    // a child ending now sees the trace as decided and is counted as late
+                    trace.decided = true;
+                    dropped("expired", trace.spans.size());
+                }
+            }
+        });
+    }
+
+    private void dropped(String reason, int spans) {
+        Counter.builder("tracing.tail.spans.dropped")
+                .description("Spans dropped by tail sampling, by reason")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment(spans);
+    }
+}
@@ -1,23 +1,58 @@
 package com.semester4.customer_api.controllers;
 
-import com.semester4.customer_api.dto.AddressDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semester4.customer_api.dto.BulkCustomerResult;
+import com.semester4.customer_api.dto.BulkDeleteRequest;
+import com.semester4.customer_api.dto.BulkDeleteResult;
+import com.semester4.customer_api.dto.CursorPage;
+import com.semester4.customer_api.dto.CustomerChange;
 import com.semester4.customer_api.dto.CustomerDTO;
+import com.semester4.customer_api.dto.CustomerMapper;
+import com.semester4.customer_api.dto.CustomerPatch;
+import com.semester4.customer_api.dto.CustomerResponse;
+import com.semester4.customer_api.dto.CustomerSearch;
+import com.semester4.customer_api.dto.CustomerSummary;
+import com.semester4.customer_api.dto.CustomerType;
 import com.semester4.customer_api.dto.ResponseWrapper;
+import com.semester4.customer_api.exceptions.CustomerNotFoundException;
+import com.semester4.customer_api.exceptions.DuplicateCustomerException;
+import com.semester4.customer_api.exceptions.InvalidCustomerException;
 import com.semester4.customer_api.models.*;
+import com.semester4.customer_api.services.CustomerExporter;
 import com.semester4.customer_api.services.CustomerService;
-import com.semester4.customer_api.models.Gender;
 
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.ConstraintViolation;
 import jakarta.validation.Valid;
+import jakarta.validation.Validator;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.validation.ObjectError;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 import java.util.logging.Logger;
+import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/customers")
@@ -27,6 +62,30 @@ public class CustomerController {
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerMapper customerMapper;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private CustomerExporter customerExporter;
+
+    @Value("${customer.bulk.max-items:10000}")
+    private int maxBatchSize;
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    // the nullable columns a merge patch may clear
+    private static final Set<String> REMOVABLE_MEMBERS = Set.of("phoneNumber", "gender", "dateOfBirth", "companyType");
+    // RFC 7240
+    static final String PREFER = "Prefer";
+    static final String PREFERENCE_APPLIED = "Preference-Applied";
+    static final String RETURN_REPRESENTATION = "return=representation";
+
     private static final Logger logger = Logger.getLogger(CustomerController.class.getName());
 
     @PostMapping("/v1.0")
@@ -35,107 +94,262 @@ public class CustomerController {
 
         logger.info("Received request to create customer: " + customerDTO);
 
-        long phoneNumber;
+        Customer customer;
         try {
-            phoneNumber = Long.parseLong(customerDTO.getPhoneNumber());
-        } catch (NumberFormatException e) {
+            customer = customerMapper.toCustomer(customerDTO);
+        } catch (InvalidCustomerException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ResponseWrapper<String>(null, "Invalid phone number format"));
+                    .body(new ResponseWrapper<String>(null, e.getMessage()));
         }
 
-        logger.info("Parsed phone number: " + phoneNumber);
+        // customer and address are written in one transaction
+        List<Address> addresses = customerDTO.getAddress() == null
+                ? List.of()
+                : List.of(customerMapper.toAddress(customerDTO.getAddress(), customer));
 
-        FullName fullName = FullName.builder()
-                .firstName(customerDTO.getFullName().getFirstName())
-                .lastName(customerDTO.getFullName().getLastName())
-                .middleName(customerDTO.getFullName().getMiddleName())
-                .build();
+        Customer savedCustomer;
+        try {
+            savedCustomer = customerService.createCustomer(customer, addresses);
+        } catch (DuplicateCustomerException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ResponseWrapper<>(null, e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ResponseWrapper<>(null, "Customer with this account number or email already exists"));
+        }
 
-        Customer savedCustomer = null;
+        if (savedCustomer != null) {
+            return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(new ResponseWrapper<>(CustomerResponse.of(savedCustomer, addresses), "Customer created successfully"));
+        } else {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, "Customer could not be saved"));
+        }
 
-        switch (customerDTO.getAccountType()) {
+    }
 
-            case INDIVIDUAL -> {
-                if (customerDTO.getGender() == null) {
-                    return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                            .body(new ResponseWrapper<>(null, "Gender is required for individual accounts"));
-                }
-                Individual individual = Individual.builder()
-                        .accountNo(customerDTO.getAccountNo())
-                        .fullName(fullName)
-                        .email(customerDTO.getEmail())
-                        .password(customerDTO.getPassword())
-                        .phoneNumber(phoneNumber)
-                        .gender(customerDTO.getGender())
-                        .build();
-                savedCustomer = customerService.addIndividual(individual);
-            }
+    @PostMapping("/v1.0/batch")
+    @Operation(summary = "Create customers in bulk",
+            description = "Validates every customer, stores the valid ones in chunked transactions and reports a result per item")
+    public ResponseEntity<ResponseWrapper> saveCustomers(@RequestBody List<CustomerDTO> customerDTOs) {
+
+        if (customerDTOs.isEmpty() || customerDTOs.size() > maxBatchSize) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, "A batch must contain between 1 and " + maxBatchSize + " customers"));
+        }
 
-            case CORPORATE -> {
-                Corporate corporate = Corporate.builder()
-                        .accountNo(customerDTO.getAccountNo())
-                        .fullName(fullName)
-                        .email(customerDTO.getEmail())
-                        .password(customerDTO.getPassword())
-                        .phoneNumber(phoneNumber)
-                        .build();
-                savedCustomer = customerService.addCorporate(corporate);
+        logger.info("Received request to create " + customerDTOs.size() + " customers");
+
+        BulkCustomerResult[] results = new BulkCustomerResult[customerDTOs.size()];
+        List<Customer> customers = new ArrayList<>(customerDTOs.size());
+        List<Integer> positions = new ArrayList<>(customerDTOs.size());
+        List<Address> addresses = new ArrayList<>();
+
+        for (int i = 0; i < customerDTOs.size(); i++) {
+            CustomerDTO customerDTO = customerDTOs.get(i);
+
+            Set<ConstraintViolation<CustomerDTO>> violations = validator.validate(customerDTO);
+            if (!violations.isEmpty()) {
+                results[i] = BulkCustomerResult.failed(i, customerDTO.getAccountNo(), violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                continue;
             }
 
-            default -> {
-                Customer customer = Customer.builder()
-                        .accountNo(customerDTO.getAccountNo())
-                        .fullName(fullName)
-                        .email(customerDTO.getEmail())
-                        .password(customerDTO.getPassword())
-                        .phoneNumber(phoneNumber)
-                        .build();
-                savedCustomer = customerService.addCustomer(customer);
+            try {
+                Customer customer = customerMapper.toCustomer(customerDTO);
+                customers.add(customer);
+                positions.add(i);
+                if (customerDTO.getAddress() != null) {
+                    addresses.add(customerMapper.toAddress(customerDTO.getAddress(), customer));
+                }
+            } catch (InvalidCustomerException e) {
+                results[i] = BulkCustomerResult.failed(i, customerDTO.getAccountNo(), e.getMessage());
             }
         }
 
-        // Save address if provided
-        if (savedCustomer != null && customerDTO.getAddress() != null) {
-            AddressDTO addr = customerDTO.getAddress();
+        for (BulkCustomerResult result : customerService.addCustomers(customers, addresses)) {
+            int position = positions.get(result.getIndex());
+            result.setIndex(position);
+            results[position] = result;
+        }
+
+        long created = Arrays.stream(results)
+                .filter(result -> result.getStatus() == BulkCustomerResult.Status.CREATED)
+                .count();
+        HttpStatus status = created == results.length ? HttpStatus.CREATED : HttpStatus.MULTI_STATUS;
+
+        return ResponseEntity.status(status)
+                .body(new ResponseWrapper<>(Arrays.asList(results),
+                        created + " of " + results.length + " customers created"));
+    }
+
+    @GetMapping("/v1.0")
+    @Operation(summary = "Get customers a page at a time",
+            description = "Pages are ordered by account number; pass the X-Next-Cursor header value as 'after' to read the next page")
+    public ResponseEntity<List<CustomerResponse>> fetchCustomers(
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+
+        CursorPage<Customer> page = customerService.getCustomers(after, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext().toString());
+        }
+        return response.body(page.getData().stream().map(CustomerResponse::of).toList());
+    }
+
+    @GetMapping("/v1.0/summaries")
+    @Operation(summary = "Get customer summaries a page at a time",
+            description = "Lightweight view without the password; pass 'type' to include the individual or corporate fields")
+    public ResponseEntity<List<?>> fetchCustomerSummaries(
+            @RequestParam(required = false) CustomerType type,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
 
-            Address address = new Address(
-                    null,
-                    addr.getDoorNo(),
-                    addr.getStreet(),
-                    addr.getCity(),
-                    addr.getState(),
-                    addr.getZip(),
-                    addr.getCountry(),
-                    savedCustomer
-            );
+        CursorPage<?> page = customerService.getCustomerSummaries(type, after, size);
 
-            customerService.saveAddress(address);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext().toString());
         }
+        return response.body(page.getData());
+    }
 
-        if (savedCustomer != null) {
-            return ResponseEntity.status(HttpStatus.CREATED)
-                    .body(new ResponseWrapper<>(savedCustomer, "Customer created successfully"));
+    @GetMapping("/v1.0/summaries/{accountNo}")
+    @Operation(summary = "Get a customer summary by account number")
+    public ResponseEntity<ResponseWrapper> fetchCustomerSummary(@PathVariable long accountNo) {
+
+        CustomerSummary summary = customerService.findCustomerSummary(accountNo);
+
+        if (summary != null) {
+            return ResponseEntity.ok(new ResponseWrapper<>(summary, "Customer retrieved successfully"));
         } else {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ResponseWrapper<>(null, "Customer with account number " + accountNo + " not found"));
+        }
+    }
+
+    @GetMapping("/v1.0/search")
+    @Operation(summary = "Search customers",
+            description = "Exact email, case-insensitive name prefixes and exact address fields; every criterion given must match. "
+                    + "Pages are ordered by account number like GET /v1.0")
+    public ResponseEntity<?> searchCustomers(
+            CustomerSearch search,
+            @RequestParam(required = false) Long after,
+            @RequestParam(defaultValue = "100") int size) {
+
+        if (!search.hasCriteria()) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST)
-                    .body(new ResponseWrapper<>(null, "Customer could not be saved"));
+                    .body(new ResponseWrapper<>(null, "Give at least one of email, name, city, state, zip or country"));
         }
 
+        CursorPage<CustomerSummary> page = customerService.searchCustomers(search, after, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext().toString());
+        }
+        return response.body(page.getData());
     }
 
-    @GetMapping("/v1.0")
-    @Operation(summary = "Get all customers")
-    public List<Customer> fetchCustomers() {
-        return customerService.getCustomers();
+    @GetMapping(value = "/v1.0/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream all customers as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamCustomers() {
+
+        StreamingResponseBody body = out -> customerService.streamCustomers(customer -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(CustomerResponse.of(customer)));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/v1.0/export", produces = "text/csv")
+    @Operation(summary = "Export customers with their addresses as CSV",
+            description = "Streams the customers with after < accountNo <= upTo, one row per address; "
+                    + "split the account number range to export in parallel")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "" + Long.MAX_VALUE) long upTo) {
+
+        StreamingResponseBody body = out -> customerExporter.writeCsv(after, upTo, Channels.newChannel(out));
+
+        return ResponseEntity.ok()
+                .contentType(new MediaType("text", "csv", StandardCharsets.UTF_8))
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"customers.csv\"")
+                .body(body);
+    }
+
+    @GetMapping("/v1.0/changes")
+    @Operation(summary = "Get the customers changed after a version",
+            description = "Entries are in version order and a deleted customer is listed with deleted=true. Start with since=0 "
+                    + "and pass the X-Next-Cursor header value, or the version of the last entry once it is missing, as the next 'since'")
+    public ResponseEntity<List<CustomerChange>> fetchChanges(
+            @RequestParam(defaultValue = "0") long since,
+            @RequestParam(defaultValue = "100") int size) {
+
+        CursorPage<CustomerChange> page = customerService.getChanges(since, size);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNext() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNext().toString());
+        }
+        return response.body(page.getData());
+    }
+
+    @GetMapping(value = "/v1.0/changes", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Stream every customer change after a version as newline-delimited JSON")
+    public ResponseEntity<StreamingResponseBody> streamChanges(@RequestParam(defaultValue = "0") long since) {
+
+        StreamingResponseBody body = out -> customerService.streamChanges(since, change -> {
+            try {
+                out.write(objectMapper.writeValueAsBytes(change));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
     }
 
     @GetMapping("/v1.0/{accountNo}")
-    @Operation(summary = "Get customer by account number")
-    public ResponseEntity<ResponseWrapper> fetchCustomerById(@PathVariable long accountNo) {
+    @Operation(summary = "Get customer by account number",
+            description = "Sends the customer version as ETag; with a matching If-None-Match the answer is 304 without a body")
+    public ResponseEntity<ResponseWrapper> fetchCustomerById(
+            @PathVariable long accountNo,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        // the version is cached separately, so an unchanged customer is neither loaded nor serialized
+        Long version = customerService.findCustomerVersion(accountNo);
+        if (version != null && notModified(ifNoneMatch, etag(version))) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag(version).formattedTag()).build();
+        }
 
-        Customer customer = customerService.findCustomer(accountNo);
+        Customer customer = null;
+        if (version != null) {
+            try {
+                customer = customerService.findCustomer(accountNo);
+            } catch (CustomerNotFoundException e) {
+                // deleted since the version was read
+            }
+        }
 
         if (customer != null) {
-            return ResponseEntity.ok(new ResponseWrapper<>(customer, "Customer retrieved successfully"));
+            return ResponseEntity.ok()
+                    .eTag(etag(customer.getVersion()).formattedTag())
+                    .body(new ResponseWrapper<>(CustomerResponse.of(customer), "Customer retrieved successfully"));
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ResponseWrapper<>(null, "Customer with account number " + accountNo + " not found"));
@@ -143,21 +357,139 @@ public class CustomerController {
     }
 
     @PutMapping("/v1.0")
-    @Operation(summary = "Update customer email")
+    @Operation(summary = "Update customer email",
+            description = "With If-Match the update only applies to the version in the ETag and fails with 412 otherwise")
     public ResponseEntity<ResponseWrapper> updateCustomer(
             @RequestParam long accountNo,
-            @RequestParam String newEmail) {
+            @RequestParam String newEmail,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
 
-        Customer customer = customerService.updateCustomer(accountNo, newEmail);
+        Customer customer;
+        try {
+            customer = customerService.updateCustomer(accountNo, newEmail, expectedVersion(ifMatch));
+        } catch (DuplicateCustomerException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ResponseWrapper<>(null, e.getMessage()));
+        } catch (DataIntegrityViolationException e) {
+            // another writer took the email after the filter was asked
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ResponseWrapper<>(null, "Customer with this email already exists"));
+        } catch (OptimisticLockingFailureException e) {
+            // without If-Match the update lost a race with another one; the client may simply retry
+            HttpStatus status = ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED;
+            return ResponseEntity.status(status)
+                    .body(new ResponseWrapper<>(null, "Customer with account number " + accountNo + " was modified concurrently"));
+        }
 
         if (customer != null) {
-            return ResponseEntity.ok(new ResponseWrapper<>(customer, "Customer updated successfully"));
+            return ResponseEntity.ok()
+                    .eTag(etag(customer.getVersion()).formattedTag())
+                    .body(new ResponseWrapper<>(CustomerResponse.of(customer), "Customer updated successfully"));
         } else {
             return ResponseEntity.status(HttpStatus.NOT_FOUND)
                     .body(new ResponseWrapper<>(null, "Customer not updated"));
         }
     }
 
+    @PatchMapping(value = "/v1.0/{accountNo}", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Update some fields of a customer",
+            description = "Writes only the non-null fields sent and answers with the new version; send 'Prefer: return=representation' "
+                    + "for the updated customer instead. With If-Match the patch only applies to the version in the ETag")
+    public ResponseEntity<ResponseWrapper> patchCustomer(
+            @PathVariable long accountNo,
+            @Valid @RequestBody CustomerPatch patch,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PREFER, required = false) String prefer) {
+
+        long version;
+        try {
+            version = customerService.patchCustomer(accountNo, patch, expectedVersion(ifMatch));
+        } catch (CustomerNotFoundException e) {
+            return ResponseEntity.status(HttpStatus.NOT_FOUND)
+                    .body(new ResponseWrapper<>(null, e.getMessage()));
+        } catch (InvalidCustomerException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, e.getMessage()));
+        } catch (DuplicateCustomerException | DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT)
+                    .body(new ResponseWrapper<>(null, "Customer with this email already exists"));
+        } catch (OptimisticLockingFailureException e) {
+            HttpStatus status = ifMatch == null ? HttpStatus.CONFLICT : HttpStatus.PRECONDITION_FAILED;
+            return ResponseEntity.status(status)
+                    .body(new ResponseWrapper<>(null, "Customer with account number " + accountNo + " was modified concurrently"));
+        }
+
+        // the customer is only read back when the client asked for it
+        if (prefer != null && prefer.contains(RETURN_REPRESENTATION)) {
+            Customer customer = customerService.findCustomer(accountNo);
+            return ResponseEntity.ok()
+                    .eTag(etag(customer.getVersion()).formattedTag())
+                    .header(PREFERENCE_APPLIED, RETURN_REPRESENTATION)
+                    .body(new ResponseWrapper<>(CustomerResponse.of(customer), "Customer updated successfully"));
+        }
+        return ResponseEntity.ok()
+                .eTag(etag(version).formattedTag())
+                .body(new ResponseWrapper<>(version, "Customer updated successfully"));
+    }
+
+    @PatchMapping(value = "/v1.0/{accountNo}", consumes = MERGE_PATCH_JSON_VALUE)
+    @Operation(summary = "Update some fields of a customer with a JSON merge patch",
+            description = "As the application/json patch, except that null removes a field (RFC 7396): phoneNumber, gender, "
+                    + "dateOfBirth and companyType are cleared, and the other fields, which every customer has, answer 400. "
+                    + "Addresses are still matched by addressId rather than replaced")
+    public ResponseEntity<ResponseWrapper> mergePatchCustomer(
+            @PathVariable long accountNo,
+            @RequestBody JsonNode body,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @RequestHeader(value = PREFER, required = false) String prefer) {
+
+        if (!body.isObject()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, "A merge patch has to be a JSON object"));
+        }
+        List<String> nulls = new ArrayList<>();
+        collectNulls(body, "", nulls);
+        List<String> required = nulls.stream().filter(member -> !REMOVABLE_MEMBERS.contains(member)).toList();
+        if (!required.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, "Every customer has " + String.join(", ", required)));
+        }
+
+        CustomerPatch patch;
+        try {
+            patch = objectMapper.treeToValue(body, CustomerPatch.class);
+        } catch (JsonProcessingException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, e.getOriginalMessage()));
+        }
+        Set<ConstraintViolation<CustomerPatch>> violations = validator.validate(patch);
+        if (!violations.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, violations.stream()
+                            .map(ConstraintViolation::getMessage)
+                            .sorted()
+                            .collect(Collectors.joining("; "))));
+        }
+        patch.setRemoved(Set.copyOf(nulls));
+        return patchCustomer(accountNo, patch, ifMatch, prefer);
+    }
+
+    // paths of the null members, with the members of array elements under the array's name
+    private static void collectNulls(JsonNode node, String path, List<String> nulls) {
+        if (node.isArray()) {
+            node.forEach(element -> collectNulls(element, path, nulls));
+        } else if (node.isObject()) {
+            node.fields().forEachRemaining(member -> {
+                String memberPath = path.isEmpty() ? member.getKey() : path + "." + member.getKey();
+                if (member.getValue().isNull()) {
+                    nulls.add(memberPath);
+                } else {
+                    collectNulls(member.getValue(), memberPath, nulls);
+                }
+            });
+        }
+    }
+
     @DeleteMapping("/v1.0")
     @Operation(summary = "Delete customer")
     public ResponseEntity<ResponseWrapper> deleteCustomer(@RequestParam long accountNo) {
@@ -169,4 +501,71 @@ public class CustomerController {
                     .body(new ResponseWrapper<>(null, "Customer with account number " + accountNo + " not found"));
         }
     }
+
+    @PostMapping("/v1.0/batch/delete")
+    @Operation(summary = "Delete customers in bulk",
+            description = "Deletes the listed account numbers, or every customer with after < accountNo <= upTo, "
+                    + "in chunked transactions without loading them, and reports the rows deleted")
+    public ResponseEntity<ResponseWrapper> deleteCustomers(@RequestBody BulkDeleteRequest request) {
+
+        boolean byList = request.getAccountNos() != null;
+        boolean byRange = request.getAfter() != null || request.getUpTo() != null;
+        if (byList == byRange) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, "Send either accountNos or a range with after and upTo"));
+        }
+        if (byList && (request.getAccountNos().isEmpty() || request.getAccountNos().size() > maxBatchSize)) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body(new ResponseWrapper<>(null, "A batch must contain between 1 and " + maxBatchSize + " customers"));
+        }
+
+        BulkDeleteResult result;
+        if (byList) {
+            logger.info("Received request to delete " + request.getAccountNos().size() + " customers");
+            result = customerService.deleteCustomers(request.getAccountNos());
+        } else {
+            long after = request.getAfter() == null ? 0L : request.getAfter();
+            long upTo = request.getUpTo() == null ? Long.MAX_VALUE : request.getUpTo();
+            logger.info("Received request to delete customers after " + after + " up to " + upTo);
+            result = customerService.deleteCustomers(after, upTo);
+        }
+        return ResponseEntity.ok(new ResponseWrapper<>(result,
+                result.customers() + " customers and " + result.addresses() + " addresses deleted"));
+    }
+
+    // @Valid bodies, answered like the other bad requests instead of with an empty body
+    @ExceptionHandler(MethodArgumentNotValidException.class)
+    public ResponseEntity<ResponseWrapper> handleInvalidBody(MethodArgumentNotValidException ex) {
+        return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                .body(new ResponseWrapper<>(null, ex.getBindingResult().getAllErrors().stream()
+                        .map(ObjectError::getDefaultMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; "))));
+    }
+
+    private static ETag etag(Long version) {
+        return new ETag(String.valueOf(version), false);
+    }
+
+    // If-None-Match uses the weak comparison of RFC 9110
+    private static boolean notModified(String ifNoneMatch, ETag etag) {
+        return ifNoneMatch != null && ETag.parse(ifNoneMatch).stream()
+                .anyMatch(tag -> tag.isWildcard() || tag.compare(etag, false));
+    }
+
+    // null for no precondition or "*"; a weak or non-numeric tag gets -1, which no version ever matches
+    private static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null) {
+            return null;
+        }
+        List<ETag> tags = ETag.parse(ifMatch);
+        if (tags.size() == 1 && tags.get(0).isWildcard()) {
+            return null;
+        }
+        return tags.stream()
+                .filter(tag -> !tag.weak() && tag.tag().matches("\\d{1,18}"))
+                .map(tag -> Long.valueOf(tag.tag()))
+                .findFirst()
+                .orElse(-1L);
+    }
 }
@@ -0,0 +1,43 @@
+package com.semester4.customer_api.controllers;
+
+import com.semester4.customer_api.dto.ExportProgress;
+import com.semester4.customer_api.services.CustomerExporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * /actuator/customerexport: GET reports the current or last export, POST {"name": "2026-01-31"} starts one into
+ * that subdirectory of customer.export.directory, or resumes it. The name defaults to today's date.
+ */
+@Component
+@Endpoint(id = "customerexport")
+public class CustomerExportEndpoint {
+
+    @Autowired
+    private CustomerExporter customerExporter;
+
+    @ReadOperation
+    public ExportProgress progress() {
+        return customerExporter.progress();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<ExportProgress> export(@Nullable String name) {
+        try {
+            String exportName = name == null ? LocalDate.now().toString() : name;
+            return new WebEndpointResponse<>(customerExporter.start(exportName), HttpStatus.ACCEPTED.value());
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(HttpStatus.BAD_REQUEST.value());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(customerExporter.progress(), HttpStatus.CONFLICT.value());
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.semester4.customer_api.controllers;
+
+import com.semester4.customer_api.dto.ImportProgress;
+import com.semester4.customer_api.services.CustomerImporter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * /actuator/customerimport: GET reports the current or last import with its rows per second and ETA,
+ * POST {"name": "legacy.csv.gz"} starts importing that file from customer.import.directory.
+ */
+@Component
+@Endpoint(id = "customerimport")
+public class CustomerImportEndpoint {
+
+    @Autowired
+    private CustomerImporter customerImporter;
+
+    @ReadOperation
+    public ImportProgress progress() {
+        return customerImporter.progress();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<ImportProgress> importFile(String name) {
+        try {
+            return new WebEndpointResponse<>(customerImporter.start(name), HttpStatus.ACCEPTED.value());
+        } catch (IllegalArgumentException e) {
+            return new WebEndpointResponse<>(HttpStatus.BAD_REQUEST.value());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(customerImporter.progress(), HttpStatus.CONFLICT.value());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
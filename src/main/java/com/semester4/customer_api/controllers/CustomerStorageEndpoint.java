@@ -0,0 +1,50 @@
+package com.semester4.customer_api.controllers;
+
+import com.semester4.customer_api.dto.MigrationProgress;
+import com.semester4.customer_api.models.StorageLayout;
+import com.semester4.customer_api.services.CustomerStorageMigrator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+/**
+ * /actuator/customerstorage: GET reports the current or last storage layout migration,
+ * POST {"target": "SINGLE_TABLE"} or {"target": "JOINED"} starts one, into the layout this instance does not serve,
+ * DELETE drops the copy of the layout this instance does not serve once the switch is done.
+ */
+@Component
+@Endpoint(id = "customerstorage")
+public class CustomerStorageEndpoint {
+
+    @Autowired
+    private CustomerStorageMigrator customerStorageMigrator;
+
+    @ReadOperation
+    public MigrationProgress progress() {
+        return customerStorageMigrator.progress();
+    }
+
+    @WriteOperation
+    public WebEndpointResponse<MigrationProgress> migrate(StorageLayout target) {
+        try {
+            return new WebEndpointResponse<>(customerStorageMigrator.start(target), HttpStatus.ACCEPTED.value());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(customerStorageMigrator.progress(), HttpStatus.CONFLICT.value());
+        }
+    }
+
+    @DeleteOperation
+    public WebEndpointResponse<Void> contract() {
+        try {
+            customerStorageMigrator.contract();
+            return new WebEndpointResponse<>(HttpStatus.NO_CONTENT.value());
+        } catch (IllegalStateException e) {
+            return new WebEndpointResponse<>(HttpStatus.CONFLICT.value());
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package com.semester4.customer_api.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.semester4.customer_api.models.Address;
+
+import java.io.Serializable;
+
+// the address without its lazy customer reference
+@JsonSerialize(using = AddressResponseSerializer.class)
+public record AddressResponse(Long addressId, String doorNo, String street, String city, String state,
+                              String zip, String country) implements Serializable {
+
+    public static AddressResponse of(Address address) {
+        return new AddressResponse(address.getAddressId(), address.getDoorNo(), address.getStreet(), address.getCity(),
+                address.getState(), address.getZip(), address.getCountry());
+    }
+}
@@ -0,0 +1,43 @@
+package com.semester4.customer_api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import static com.semester4.customer_api.dto.CustomerResponseSerializer.writeNumber;
+import static com.semester4.customer_api.dto.CustomerResponseSerializer.writeString;
+
+// see CustomerResponseSerializer
+public class AddressResponseSerializer extends StdSerializer<AddressResponse> {
+
+    static final AddressResponseSerializer INSTANCE = new AddressResponseSerializer();
+
+    private static final SerializableString ADDRESS_ID = new SerializedString("addressId");
+    private static final SerializableString DOOR_NO = new SerializedString("doorNo");
+    private static final SerializableString STREET = new SerializedString("street");
+    private static final SerializableString CITY = new SerializedString("city");
+    private static final SerializableString STATE = new SerializedString("state");
+    private static final SerializableString ZIP = new SerializedString("zip");
+    private static final SerializableString COUNTRY = new SerializedString("country");
+
+    public AddressResponseSerializer() {
+        super(AddressResponse.class);
+    }
+
+    @Override
+    public void serialize(AddressResponse address, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(address);
+        writeNumber(gen, ADDRESS_ID, address.addressId());
+        writeString(gen, DOOR_NO, address.doorNo());
+        writeString(gen, STREET, address.street());
+        writeString(gen, CITY, address.city());
+        writeString(gen, STATE, address.state());
+        writeString(gen, ZIP, address.zip());
+        writeString(gen, COUNTRY, address.country());
+        gen.writeEndObject();
+    }
+}
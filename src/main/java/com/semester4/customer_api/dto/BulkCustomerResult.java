@@ -0,0 +1,29 @@
+package com.semester4.customer_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkCustomerResult implements Serializable {
+    private int index;
+    private Long accountNo;
+    private Status status;
+    private String message;
+
+    public enum Status {
+        CREATED, FAILED
+    }
+
+    public static BulkCustomerResult created(int index, Long accountNo) {
+        return new BulkCustomerResult(index, accountNo, Status.CREATED, null);
+    }
+
+    public static BulkCustomerResult failed(int index, Long accountNo, String message) {
+        return new BulkCustomerResult(index, accountNo, Status.FAILED, message);
+    }
+}
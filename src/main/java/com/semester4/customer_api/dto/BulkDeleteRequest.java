@@ -0,0 +1,18 @@
+package com.semester4.customer_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+// either a list of account numbers or the range after < accountNo <= upTo
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BulkDeleteRequest implements Serializable {
+    private List<Long> accountNos;
+    private Long after;
+    private Long upTo;
+}
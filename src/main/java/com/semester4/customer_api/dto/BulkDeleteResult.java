@@ -0,0 +1,13 @@
+package com.semester4.customer_api.dto;
+
+import java.io.Serializable;
+
+// rows deleted, summed over the chunks of a bulk delete
+public record BulkDeleteResult(long customers, long addresses) implements Serializable {
+
+    public static final BulkDeleteResult NONE = new BulkDeleteResult(0, 0);
+
+    public BulkDeleteResult plus(BulkDeleteResult other) {
+        return new BulkDeleteResult(customers + other.customers, addresses + other.addresses);
+    }
+}
@@ -0,0 +1,10 @@
+package com.semester4.customer_api.dto;
+
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.FullName;
+
+import java.io.Serializable;
+
+public record CorporateSummary(Long accountNo, FullName fullName, String email, Long phoneNumber,
+                               CompanyType companyType) implements Serializable {
+}
@@ -0,0 +1,18 @@
+package com.semester4.customer_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class CursorPage<T> implements Serializable {
+    private List<T> data;
+
+    // cursor to pass as "after" for the next page, null when this is the last page
+    private Long next;
+}
@@ -0,0 +1,19 @@
+package com.semester4.customer_api.dto;
+
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.CustomerTombstone;
+
+/**
+ * One entry of the change feed: the current state of a customer, or a delete with no customer.
+ * Entries come in version order; the version of the last one is the {@code since} for the next request.
+ */
+public record CustomerChange(long version, long accountNo, boolean deleted, CustomerResponse customer) {
+
+    public static CustomerChange of(Customer customer) {
+        return new CustomerChange(customer.getChangeVersion(), customer.getAccountNo(), false, CustomerResponse.of(customer));
+    }
+
+    public static CustomerChange of(CustomerTombstone tombstone) {
+        return new CustomerChange(tombstone.getChangeVersion(), tombstone.getAccountNo(), true, null);
+    }
+}
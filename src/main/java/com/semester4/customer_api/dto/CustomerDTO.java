@@ -25,7 +25,7 @@ public class CustomerDTO implements Serializable {
     @Pattern(regexp = "^(?=.*\\d)(?=.*[a-z])(?=.*[A-Z])(?=.*[a-zA-Z]).{5,20}$",message = "Password must have mininum one digit,one lowercase and one upper case")
     protected  String password;
 
-    @Pattern(regexp = "^\\d{10,11}$",message = "Phone Number Should be 10 or 11 Digits")
+    @Pattern(regexp = "^\\d{10,11}$",message = "Invalid phone number format")
     protected  String phoneNumber;
 
     protected AddressDTO address;
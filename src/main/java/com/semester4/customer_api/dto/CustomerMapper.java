@@ -0,0 +1,77 @@
+package com.semester4.customer_api.dto;
+
+import com.semester4.customer_api.exceptions.InvalidCustomerException;
+import com.semester4.customer_api.models.*;
+import org.springframework.stereotype.Component;
+
+@Component
+public class CustomerMapper {
+
+    public Customer toCustomer(CustomerDTO customerDTO) {
+
+        if (customerDTO.getFullName() == null) {
+            throw new InvalidCustomerException("Full name is required");
+        }
+
+        long phoneNumber;
+        try {
+            phoneNumber = Long.parseLong(customerDTO.getPhoneNumber());
+        } catch (NumberFormatException e) {
+            throw new InvalidCustomerException("Invalid phone number format");
+        }
+
+        FullName fullName = FullName.builder()
+                .firstName(customerDTO.getFullName().getFirstName())
+                .lastName(customerDTO.getFullName().getLastName())
+                .middleName(customerDTO.getFullName().getMiddleName())
+                .build();
+
+        if (customerDTO.getAccountType() == null) {
+            return Customer.builder()
+                    .accountNo(customerDTO.getAccountNo())
+                    .fullName(fullName)
+                    .email(customerDTO.getEmail())
+                    .password(customerDTO.getPassword())
+                    .phoneNumber(phoneNumber)
+                    .build();
+        }
+
+        return switch (customerDTO.getAccountType()) {
+
+            case INDIVIDUAL -> {
+                if (customerDTO.getGender() == null) {
+                    throw new InvalidCustomerException("Gender is required for individual accounts");
+                }
+                yield Individual.builder()
+                        .accountNo(customerDTO.getAccountNo())
+                        .fullName(fullName)
+                        .email(customerDTO.getEmail())
+                        .password(customerDTO.getPassword())
+                        .phoneNumber(phoneNumber)
+                        .gender(customerDTO.getGender())
+                        .build();
+            }
+
+            case CORPORATE -> Corporate.builder()
+                    .accountNo(customerDTO.getAccountNo())
+                    .fullName(fullName)
+                    .email(customerDTO.getEmail())
+                    .password(customerDTO.getPassword())
+                    .phoneNumber(phoneNumber)
+                    .build();
+        };
+    }
+
+    public Address toAddress(AddressDTO addr, Customer customer) {
+        return new Address(
+                null,
+                addr.getDoorNo(),
+                addr.getStreet(),
+                addr.getCity(),
+                addr.getState(),
+                addr.getZip(),
+                addr.getCountry(),
+                customer
+        );
+    }
+}
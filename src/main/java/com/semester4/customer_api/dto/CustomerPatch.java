@@ -0,0 +1,63 @@
+package com.semester4.customer_api.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Gender;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+
+// fields left out stay unchanged, as do null ones unless sent as a merge patch; addresses are matched by addressId
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerPatch implements Serializable {
+
+    @Valid
+    private Name fullName;
+
+    @Email(message = "Enter valid mail address")
+    private String email;
+    @Pattern(regexp = "^(?=.*\\d)(?=.*[a-z])(?=.*[A-Z])(?=.*[a-zA-Z]).{5,20}$",message = "Password must have mininum one digit,one lowercase and one upper case")
+    private String password;
+    @Pattern(regexp = "^\\d{10,11}$",message = "Invalid phone number format")
+    private String phoneNumber;
+
+    // individuals only
+    private Gender gender;
+    private LocalDate dateOfBirth;
+    // corporates only
+    private CompanyType companyType;
+
+    private List<AddressDTO> addresses;
+
+    // members an application/merge-patch+json body set to null, which clears them
+    @JsonIgnore
+    private Set<String> removed;
+
+    public boolean removes(String member) {
+        return removed != null && removed.contains(member);
+    }
+
+    @Data
+    @Builder
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class Name implements Serializable {
+        @Pattern(regexp = "^[a-zA-Z]+$", message = "First Name must contain only alphabets")
+        private String firstName;
+        @Pattern(regexp = "^[a-zA-Z]+$", message = "Last Name must contain only alphabets")
+        private String lastName;
+        private String middleName;
+    }
+}
@@ -0,0 +1,52 @@
+package com.semester4.customer_api.dto;
+
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.semester4.customer_api.models.Address;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Corporate;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * What the endpoints send for a customer, copied out of the entity while it is still attached, so writing the
+ * response never reaches back into the persistence context. The password is never copied.
+ * {@code type} is null for a plain customer; {@code addresses} is only set when the caller has them at hand.
+ */
+@JsonSerialize(using = CustomerResponseSerializer.class)
+public record CustomerResponse(long accountNo, String firstName, String lastName, String middleName,
+                               String email, Long phoneNumber, Long changeVersion, Long version,
+                               CustomerType type, Gender gender, LocalDate dateOfBirth, CompanyType companyType,
+                               List<AddressResponse> addresses) implements Serializable {
+
+    public static CustomerResponse of(Customer customer) {
+        return of(customer, null);
+    }
+
+    public static CustomerResponse of(Customer customer, List<Address> addresses) {
+        FullName name = customer.getFullName() == null ? new FullName() : customer.getFullName();
+        List<AddressResponse> addressResponses = addresses == null
+                ? null
+                : addresses.stream().map(AddressResponse::of).toList();
+        CustomerType type = null;
+        Gender gender = null;
+        LocalDate dateOfBirth = null;
+        CompanyType companyType = null;
+        if (customer instanceof Individual individual) {
+            type = CustomerType.INDIVIDUAL;
+            gender = individual.getGender();
+            dateOfBirth = individual.getDateOfBirth();
+        } else if (customer instanceof Corporate corporate) {
+            type = CustomerType.CORPORATE;
+            companyType = corporate.getCompanyType();
+        }
+        return new CustomerResponse(customer.getAccountNo(), name.getFirstName(), name.getLastName(), name.getMiddleName(),
+                customer.getEmail(), customer.getPhoneNumber(), customer.getChangeVersion(), customer.getVersion(),
+                type, gender, dateOfBirth, companyType, addressResponses);
+    }
+}
@@ -0,0 +1,113 @@
+package com.semester4.customer_api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+import java.time.LocalDate;
+
+/**
+ * Writes {@link CustomerResponse} field by field with pre-encoded names: no bean introspection, no reflective
+ * access and no per-field serializer lookups. The layout is the one the entities used to serialize to.
+ */
+public class CustomerResponseSerializer extends StdSerializer<CustomerResponse> {
+
+    static final CustomerResponseSerializer INSTANCE = new CustomerResponseSerializer();
+
+    private static final SerializableString ACCOUNT_NO = new SerializedString("accountNo");
+    private static final SerializableString FULL_NAME = new SerializedString("fullName");
+    private static final SerializableString FIRST_NAME = new SerializedString("firstName");
+    private static final SerializableString LAST_NAME = new SerializedString("lastName");
+    private static final SerializableString MIDDLE_NAME = new SerializedString("middleName");
+    private static final SerializableString EMAIL = new SerializedString("email");
+    private static final SerializableString PHONE_NUMBER = new SerializedString("phoneNumber");
+    private static final SerializableString CHANGE_VERSION = new SerializedString("changeVersion");
+    private static final SerializableString VERSION = new SerializedString("version");
+    private static final SerializableString GENDER = new SerializedString("gender");
+    private static final SerializableString DATE_OF_BIRTH = new SerializedString("dateOfBirth");
+    private static final SerializableString COMPANY_TYPE = new SerializedString("companyType");
+    private static final SerializableString ADDRESSES = new SerializedString("addresses");
+
+    // Jackson copies the characters it is given, so each thread can reuse one buffer for every date it writes
+    private static final ThreadLocal<char[]> DATE = ThreadLocal.withInitial(() -> "0000-00-00".toCharArray());
+
+    public CustomerResponseSerializer() {
+        super(CustomerResponse.class);
+    }
+
+    @Override
+    public void serialize(CustomerResponse customer, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(customer);
+        gen.writeFieldName(ACCOUNT_NO);
+        gen.writeNumber(customer.accountNo());
+        gen.writeFieldName(FULL_NAME);
+        gen.writeStartObject();
+        writeString(gen, FIRST_NAME, customer.firstName());
+        writeString(gen, LAST_NAME, customer.lastName());
+        writeString(gen, MIDDLE_NAME, customer.middleName());
+        gen.writeEndObject();
+        writeString(gen, EMAIL, customer.email());
+        writeNumber(gen, PHONE_NUMBER, customer.phoneNumber());
+        writeNumber(gen, CHANGE_VERSION, customer.changeVersion());
+        writeNumber(gen, VERSION, customer.version());
+
+        if (customer.type() == CustomerType.INDIVIDUAL) {
+            writeString(gen, GENDER, customer.gender() == null ? null : customer.gender().name());
+            writeDate(gen, DATE_OF_BIRTH, customer.dateOfBirth());
+        } else if (customer.type() == CustomerType.CORPORATE) {
+            writeString(gen, COMPANY_TYPE, customer.companyType() == null ? null : customer.companyType().name());
+        }
+
+        if (customer.addresses() != null) {
+            gen.writeFieldName(ADDRESSES);
+            gen.writeStartArray(customer.addresses(), customer.addresses().size());
+            for (AddressResponse address : customer.addresses()) {
+                AddressResponseSerializer.INSTANCE.serialize(address, gen, provider);
+            }
+            gen.writeEndArray();
+        }
+        gen.writeEndObject();
+    }
+
+    static void writeString(JsonGenerator gen, SerializableString name, String value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeString(value);
+        }
+    }
+
+    // ISO-8601 like Jackson writes LocalDate with WRITE_DATES_AS_TIMESTAMPS off, without LocalDate.toString()
+    static void writeDate(JsonGenerator gen, SerializableString name, LocalDate value) throws IOException {
+        if (value == null || value.getYear() < 1000 || value.getYear() > 9999) {
+            writeString(gen, name, value == null ? null : value.toString());
+            return;
+        }
+        char[] date = DATE.get();
+        writeDigits(date, 0, 4, value.getYear());
+        writeDigits(date, 5, 2, value.getMonthValue());
+        writeDigits(date, 8, 2, value.getDayOfMonth());
+        gen.writeFieldName(name);
+        gen.writeString(date, 0, date.length);
+    }
+
+    private static void writeDigits(char[] chars, int offset, int length, int value) {
+        for (int i = offset + length - 1; i >= offset; i--) {
+            chars[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    static void writeNumber(JsonGenerator gen, SerializableString name, Long value) throws IOException {
+        gen.writeFieldName(name);
+        if (value == null) {
+            gen.writeNull();
+        } else {
+            gen.writeNumber(value);
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.semester4.customer_api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+// search criteria bound from query parameters; every criterion given must match
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class CustomerSearch implements Serializable {
+    // exact match
+    private String email;
+    // case-insensitive prefixes of the first, middle or last name, e.g. "jo do"
+    private String name;
+    // exact matches against any of the customer's addresses
+    private String city;
+    private String state;
+    private String zip;
+    private String country;
+
+    public boolean hasAddressCriteria() {
+        return hasText(city) || hasText(state) || hasText(zip) || hasText(country);
+    }
+
+    public boolean hasCriteria() {
+        return hasText(email) || hasText(name) || hasAddressCriteria();
+    }
+
+    public static boolean hasText(String value) {
+        return value != null && !value.isBlank();
+    }
+}
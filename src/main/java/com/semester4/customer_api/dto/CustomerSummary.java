@@ -0,0 +1,9 @@
+package com.semester4.customer_api.dto;
+
+import com.semester4.customer_api.models.FullName;
+
+import java.io.Serializable;
+
+// base columns only, so the query never touches the Individual or Corporate tables
+public record CustomerSummary(Long accountNo, FullName fullName, String email, Long phoneNumber) implements Serializable {
+}
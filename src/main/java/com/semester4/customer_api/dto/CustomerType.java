@@ -0,0 +1,6 @@
+package com.semester4.customer_api.dto;
+
+public enum CustomerType {
+    INDIVIDUAL,
+    CORPORATE
+}
@@ -0,0 +1,50 @@
+package com.semester4.customer_api.dto;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// updated by the export workers and read by the actuator endpoint
+@Getter
+public class ExportProgress implements Serializable {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String directory;
+    private final Instant startedAt = Instant.now();
+    private volatile State state = State.RUNNING;
+    private volatile int totalChunks;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    // chunks found complete from an earlier run
+    private final AtomicLong skippedChunks = new AtomicLong();
+    private final AtomicLong writtenChunks = new AtomicLong();
+    private final AtomicLong rows = new AtomicLong();
+
+    public ExportProgress(String directory) {
+        this.directory = directory;
+    }
+
+    public void setTotalChunks(int totalChunks) {
+        this.totalChunks = totalChunks;
+    }
+
+    public void chunkSkipped() {
+        skippedChunks.incrementAndGet();
+    }
+
+    public void chunkWritten(long rows) {
+        this.rows.addAndGet(rows);
+        writtenChunks.incrementAndGet();
+    }
+
+    public void finish(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state = error == null ? State.COMPLETED : State.FAILED;
+    }
+}
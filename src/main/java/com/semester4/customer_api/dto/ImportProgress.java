@@ -0,0 +1,71 @@
+package com.semester4.customer_api.dto;
+
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+// updated by the import workers and read by the actuator endpoint
+@Getter
+public class ImportProgress implements Serializable {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final String file;
+    private final String errorFile;
+    private final long totalBytes;
+    private final Instant startedAt = Instant.now();
+    private volatile State state = State.RUNNING;
+    private volatile Instant finishedAt;
+    private volatile String error;
+    // bytes of the (possibly compressed) file consumed so far
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong importedRows = new AtomicLong();
+    private final AtomicLong failedRows = new AtomicLong();
+
+    public ImportProgress(String file, String errorFile, long totalBytes) {
+        this.file = file;
+        this.errorFile = errorFile;
+        this.totalBytes = totalBytes;
+    }
+
+    public void setBytesRead(long bytesRead) {
+        this.bytesRead.set(bytesRead);
+    }
+
+    public void chunkDone(long imported, long failed) {
+        importedRows.addAndGet(imported);
+        failedRows.addAndGet(failed);
+    }
+
+    public void finish(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state = error == null ? State.COMPLETED : State.FAILED;
+    }
+
+    public double getRowsPerSecond() {
+        double seconds = elapsed().toMillis() / 1000.0;
+        return seconds == 0 ? 0 : (importedRows.get() + failedRows.get()) / seconds;
+    }
+
+    // extrapolated from the share of the file read so far; null until there is something to extrapolate from
+    public Long getEtaSeconds() {
+        if (state != State.RUNNING) {
+            return 0L;
+        }
+        long read = bytesRead.get();
+        if (read == 0 || totalBytes == 0) {
+            return null;
+        }
+        return elapsed().toSeconds() * Math.max(totalBytes - read, 0) / read;
+    }
+
+    private Duration elapsed() {
+        return Duration.between(startedAt, finishedAt == null ? Instant.now() : finishedAt);
+    }
+}
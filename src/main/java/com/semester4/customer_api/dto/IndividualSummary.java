@@ -0,0 +1,11 @@
+package com.semester4.customer_api.dto;
+
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+public record IndividualSummary(Long accountNo, FullName fullName, String email, Long phoneNumber,
+                                Gender gender, LocalDate dateOfBirth) implements Serializable {
+}
@@ -0,0 +1,56 @@
+package com.semester4.customer_api.dto;
+
+import com.semester4.customer_api.models.StorageLayout;
+import lombok.Getter;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// updated by the migration thread and read by the actuator endpoint, hence the volatile fields
+@Getter
+public class MigrationProgress implements Serializable {
+
+    public enum State {
+        RUNNING, COMPLETED, FAILED
+    }
+
+    private final StorageLayout target;
+    private final Instant startedAt = Instant.now();
+    private volatile State state = State.RUNNING;
+    private volatile long totalRows;
+    private volatile long scannedRows;
+    private volatile long copiedRows;
+    private volatile long chunks;
+    private volatile Long lastAccountNo;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    public MigrationProgress(StorageLayout target) {
+        this.target = target;
+    }
+
+    public double getPercentComplete() {
+        if (state == State.COMPLETED) {
+            return 100.0;
+        }
+        // rows inserted while running can push scanned past the starting count
+        return totalRows == 0 ? 0.0 : Math.min(100.0, 100.0 * scannedRows / totalRows);
+    }
+
+    public void setTotalRows(long totalRows) {
+        this.totalRows = totalRows;
+    }
+
+    public void chunkDone(long scanned, long copied, long lastAccountNo) {
+        this.scannedRows += scanned;
+        this.copiedRows += copied;
+        this.chunks++;
+        this.lastAccountNo = lastAccountNo;
+    }
+
+    public void finish(String error) {
+        this.error = error;
+        this.finishedAt = Instant.now();
+        this.state = error == null ? State.COMPLETED : State.FAILED;
+    }
+}
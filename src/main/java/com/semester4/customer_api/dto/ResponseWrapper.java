@@ -1,7 +1,12 @@
 package com.semester4.customer_api.dto;
 
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import lombok.Getter;
+
 import java.io.Serializable;
 
+@Getter
+@JsonSerialize(using = ResponseWrapperSerializer.class)
 public class ResponseWrapper<T> implements Serializable {
     private T data;
     private String message;
@@ -0,0 +1,35 @@
+package com.semester4.customer_api.dto;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.SerializableString;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import java.io.IOException;
+
+import static com.semester4.customer_api.dto.CustomerResponseSerializer.writeString;
+
+// see CustomerResponseSerializer; a CustomerResponse goes straight to its serializer, anything else is looked up
+public class ResponseWrapperSerializer extends StdSerializer<ResponseWrapper<?>> {
+
+    private static final SerializableString DATA = new SerializedString("data");
+    private static final SerializableString MESSAGE = new SerializedString("message");
+
+    public ResponseWrapperSerializer() {
+        super(ResponseWrapper.class, false);
+    }
+
+    @Override
+    public void serialize(ResponseWrapper<?> wrapper, JsonGenerator gen, SerializerProvider provider) throws IOException {
+        gen.writeStartObject(wrapper);
+        gen.writeFieldName(DATA);
+        if (wrapper.getData() instanceof CustomerResponse customer) {
+            CustomerResponseSerializer.INSTANCE.serialize(customer, gen, provider);
+        } else {
+            provider.defaultSerializeValue(wrapper.getData(), gen);
+        }
+        writeString(gen, MESSAGE, wrapper.getMessage());
+        gen.writeEndObject();
+    }
+}
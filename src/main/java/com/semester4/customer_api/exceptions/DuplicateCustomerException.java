@@ -0,0 +1,9 @@
+package com.semester4.customer_api.exceptions;
+
+public class DuplicateCustomerException extends RuntimeException
+{
+    public DuplicateCustomerException(String message)
+    {
+        super(message);
+    }
+}
@@ -0,0 +1,9 @@
+package com.semester4.customer_api.exceptions;
+
+public class InvalidCustomerException extends RuntimeException
+{
+    public InvalidCustomerException(String message)
+    {
+        super(message);
+    }
+}
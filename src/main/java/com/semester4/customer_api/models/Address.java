@@ -11,10 +11,18 @@ import java.io.Serializable;
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
-@Table(name = "Address")
+// search filters on the location columns; Account_No_FK backs the customer lookup of those filters
+@Table(name = "Address", indexes = {
+        @Index(name = "Address_Customer_Idx", columnList = "Account_No_FK"),
+        @Index(name = "Address_City_Idx", columnList = "City"),
+        @Index(name = "Address_State_Idx", columnList = "State"),
+        @Index(name = "Address_ZipCode_Idx", columnList = "ZipCode"),
+        @Index(name = "Address_Country_Idx", columnList = "Country")
+})
 public class Address  implements Serializable {
     @Id
-    @GeneratedValue(strategy= GenerationType.IDENTITY)
+    @GeneratedValue(strategy= GenerationType.SEQUENCE, generator = "Address_Seq")
+    @SequenceGenerator(name = "Address_Seq", sequenceName = "Address_Seq", allocationSize = 50)
     @Column(name="Address_Id")
     private  Long addressId;
     @Column(name="Door_No",nullable=false,length=5)
@@ -30,7 +38,8 @@ public class Address  implements Serializable {
     @Column(name="Country",nullable=false,length=50)
     private String country;
 
-    @ManyToOne(fetch=FetchType.LAZY,cascade=CascadeType.ALL)
+    // no cascade: the customer is always persisted first, cascading only added a merge of the parent
+    @ManyToOne(fetch=FetchType.LAZY)
     @JoinColumn(foreignKey = @ForeignKey(name = "Account_No"),
             name = "Account_No_FK")
     private Customer customer;
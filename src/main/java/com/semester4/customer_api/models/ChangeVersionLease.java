@@ -0,0 +1,26 @@
+package com.semester4.customer_api.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// change versions taken by a write that has not finished yet, see ChangeVersionAllocator
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "Change_Version_Lease")
+public class ChangeVersionLease implements Serializable {
+    @Id
+    @Column(name = "First_Version")
+    private Long firstVersion;
+    // the instance that renews it
+    @Column(name = "Owner", nullable = false, length = 36)
+    private String owner;
+    @Column(name = "Expires_At", nullable = false)
+    private Instant expiresAt;
+}
@@ -11,6 +11,7 @@ import java.io.Serializable;
 
 @Entity
 @Table(name = "Corporate")
+@DiscriminatorValue("CORPORATE")
 @SuperBuilder
 @Data
 @AllArgsConstructor
@@ -1,22 +1,25 @@
 package com.semester4.customer_api.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
 import io.swagger.v3.oas.annotations.media.Schema;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-import lombok.NoArgsConstructor;
+import lombok.*;
 import lombok.experimental.SuperBuilder;
+import org.springframework.data.domain.Persistable;
 
 import java.io.Serializable;
 
 @Entity
-@Table(name = "Customer")
+@Table(name = "Customer", indexes = @Index(name = "Customer_Change_Version_Idx", columnList = "Change_Version"))
 @Data
-@AllArgsConstructor
 @NoArgsConstructor
 @SuperBuilder
 @Inheritance(strategy = InheritanceType.JOINED)
-public class Customer implements Serializable {
+// written in both storage layouts, see META-INF/orm-single-table.xml
+@DiscriminatorColumn(name = "Customer_Type")
+@DiscriminatorValue("CUSTOMER")
+public class Customer implements Persistable<Long>, Serializable {
         @Id
         @Column(name = "Account_No", length = 10, unique = true, nullable = false)
         @Schema(hidden = true)
@@ -32,5 +35,58 @@ public class Customer implements Serializable {
         @Column(name = "Phone_Number")
         protected Long phoneNumber;
 
+        // position of the latest write in the change feed, assigned by the service
+        @Column(name = "Change_Version")
+        @Schema(hidden = true)
+        @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+        protected Long changeVersion;
+
+        // optimistic lock, sent to clients as the ETag
+        @Version
+        @Column(name = "Version")
+        @Schema(hidden = true)
+        @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+        protected Long version;
+
+        // account numbers are assigned, so tell Spring Data whether to persist or merge
+        @Transient
+        @JsonIgnore
+        @Getter(AccessLevel.NONE)
+        @Setter(AccessLevel.NONE)
+        @EqualsAndHashCode.Exclude
+        @ToString.Exclude
+        private boolean persisted;
+
+        public Customer(Long accountNo, FullName fullName, String email, String password, Long phoneNumber) {
+                this.accountNo = accountNo;
+                this.fullName = fullName;
+                this.email = email;
+                this.password = password;
+                this.phoneNumber = phoneNumber;
+        }
+
+        @Override
+        @JsonIgnore
+        public Long getId() {
+                return accountNo;
+        }
+
+        @Override
+        @JsonIgnore
+        public boolean isNew() {
+                return !persisted;
+        }
+
+        @PostLoad
+        @PostPersist
+        void markPersisted() {
+                this.persisted = true;
+        }
+
+        // undoes what a persist in a rolled back transaction left on the instance, so it can be persisted again
+        public void resetPersistState() {
+                this.version = null;
+                this.persisted = false;
+        }
 
 }
@@ -0,0 +1,25 @@
+package com.semester4.customer_api.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// left behind by a deleted customer so the change feed can report the delete
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "Customer_Tombstone")
+public class CustomerTombstone implements Serializable {
+    @Id
+    @Column(name = "Change_Version")
+    private Long changeVersion;
+    @Column(name = "Account_No", nullable = false)
+    private Long accountNo;
+    @Column(name = "Deleted_At", nullable = false)
+    private Instant deletedAt;
+}
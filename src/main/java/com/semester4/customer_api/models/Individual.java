@@ -12,6 +12,7 @@ import java.io.Serializable;
 import java.time.LocalDate;
 @Entity
 @Table(name = "Individual")
+@DiscriminatorValue("INDIVIDUAL")
 @SuperBuilder
 @Data
 @AllArgsConstructor
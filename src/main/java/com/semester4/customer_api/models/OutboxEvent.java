@@ -0,0 +1,34 @@
+package com.semester4.customer_api.models;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+// customer change waiting to be relayed to downstream services, written in the transaction of the change
+@Entity
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Table(name = "Customer_Outbox", indexes = @Index(name = "Customer_Outbox_Change_Version_Idx", columnList = "Change_Version"))
+public class OutboxEvent implements Serializable {
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "Customer_Outbox_Seq")
+    @SequenceGenerator(name = "Customer_Outbox_Seq", sequenceName = "Customer_Outbox_Seq", allocationSize = 50)
+    @Column(name = "Event_Id")
+    private Long id;
+    @Column(name = "Account_No", nullable = false)
+    private Long accountNo;
+    // the relay publishes in this order; ids come from per-instance blocks and follow no commit order
+    @Column(name = "Change_Version", nullable = false)
+    private Long changeVersion;
+    @Column(name = "Event_Type", nullable = false, length = 10)
+    private String type;
+    @Column(name = "Payload", nullable = false, length = 4000)
+    private String payload;
+    @Column(name = "Created_At", nullable = false)
+    private Instant createdAt;
+}
@@ -0,0 +1,25 @@
+package com.semester4.customer_api.models;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+@Entity
+@Table(name = "Sequence_Block")
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SequenceBlock implements Serializable {
+    @Id
+    @Column(name = "Name", length = 50)
+    private String name;
+
+    @Column(name = "Next_Value", nullable = false)
+    private Long nextValue;
+}
@@ -0,0 +1,8 @@
+package com.semester4.customer_api.models;
+
+public enum StorageLayout {
+    // Customer table plus Individual and Corporate tables holding the subtype columns
+    JOINED,
+    // every column in the Customer table, the "single-table" profile
+    SINGLE_TABLE
+}
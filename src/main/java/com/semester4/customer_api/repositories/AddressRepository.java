@@ -2,8 +2,16 @@ package com.semester4.customer_api.repositories;
 
 import com.semester4.customer_api.models.Address;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+
 @Repository
 public interface AddressRepository extends JpaRepository<Address, Long> {
+
+    @Modifying
+    @Query("delete from Address a where a.customer.accountNo in :accountNos")
+    int deleteByAccountNos(Collection<Long> accountNos);
 }
@@ -1,7 +1,16 @@
 package com.semester4.customer_api.repositories;
 
+import com.semester4.customer_api.dto.CorporateSummary;
 import com.semester4.customer_api.models.Corporate;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface CorporateRepository extends JpaRepository<Corporate, Long> {
+
+    @Query("select new com.semester4.customer_api.dto.CorporateSummary(c.accountNo, c.fullName, c.email, c.phoneNumber, c.companyType) " +
+            "from Corporate c where c.accountNo > :after order by c.accountNo")
+    List<CorporateSummary> findSummaries(long after, Limit limit);
 }
@@ -1,9 +1,71 @@
 package com.semester4.customer_api.repositories;
 
+import com.semester4.customer_api.dto.CustomerSummary;
 import com.semester4.customer_api.models.Customer;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long > {
+
+    List<Customer> findByAccountNoGreaterThanOrderByAccountNoAsc(Long accountNo, Limit limit);
+
+    // fetch size makes the driver read through a server-side cursor instead of buffering the whole result
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Customer> streamAllByOrderByAccountNoAsc();
+
+    // constructor projections over base attributes only, so Hibernate leaves out the subtype joins
+    @Query("select new com.semester4.customer_api.dto.CustomerSummary(c.accountNo, c.fullName, c.email, c.phoneNumber) " +
+            "from Customer c where c.accountNo > :after order by c.accountNo")
+    List<CustomerSummary> findSummaries(long after, Limit limit);
+
+    @Query("select new com.semester4.customer_api.dto.CustomerSummary(c.accountNo, c.fullName, c.email, c.phoneNumber) " +
+            "from Customer c where c.accountNo = :accountNo")
+    Optional<CustomerSummary> findSummary(long accountNo);
+
+    @Query("select new com.semester4.customer_api.dto.CustomerSummary(c.accountNo, c.fullName, c.email, c.phoneNumber) " +
+            "from Customer c where c.accountNo in :accountNos")
+    List<CustomerSummary> findSummaries(Collection<Long> accountNos);
+
+    @Query("select new com.semester4.customer_api.dto.CustomerSummary(c.accountNo, c.fullName, c.email, c.phoneNumber) " +
+            "from Customer c where c.accountNo > :after and c.accountNo <= :upTo order by c.accountNo")
+    List<CustomerSummary> findSummaries(long after, long upTo, Limit limit);
+
+    boolean existsByEmail(String email);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("select c.email from Customer c")
+    Stream<String> streamEmails();
+
+    @Query("select c.version from Customer c where c.accountNo = :accountNo")
+    Optional<Long> findVersion(long accountNo);
+
+    @Query("select max(c.accountNo) from Customer c")
+    Long findMaxAccountNo();
+
+    List<Customer> findByChangeVersionGreaterThanOrderByChangeVersionAsc(long since, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Customer> streamByChangeVersionGreaterThanOrderByChangeVersionAsc(long since);
+
+    @Modifying
+    @Query("update Customer c set c.changeVersion = c.accountNo where c.changeVersion is null")
+    int assignMissingChangeVersions();
 }
@@ -0,0 +1,24 @@
+package com.semester4.customer_api.repositories;
+
+import com.semester4.customer_api.models.CustomerTombstone;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+@Repository
+public interface CustomerTombstoneRepository extends JpaRepository<CustomerTombstone, Long> {
+
+    List<CustomerTombstone> findByChangeVersionGreaterThanOrderByChangeVersionAsc(long since, Limit limit);
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<CustomerTombstone> streamByChangeVersionGreaterThanOrderByChangeVersionAsc(long since);
+}
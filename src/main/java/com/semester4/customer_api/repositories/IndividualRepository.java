@@ -1,7 +1,16 @@
 package com.semester4.customer_api.repositories;
 
+import com.semester4.customer_api.dto.IndividualSummary;
 import com.semester4.customer_api.models.Individual;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.List;
 
 public interface IndividualRepository extends JpaRepository<Individual, Long> {
+
+    @Query("select new com.semester4.customer_api.dto.IndividualSummary(i.accountNo, i.fullName, i.email, i.phoneNumber, i.gender, i.dateOfBirth) " +
+            "from Individual i where i.accountNo > :after order by i.accountNo")
+    List<IndividualSummary> findSummaries(long after, Limit limit);
 }
@@ -0,0 +1,23 @@
+package com.semester4.customer_api.repositories;
+
+import com.semester4.customer_api.models.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    // oldest first; the row locks make a second relay wait instead of publishing the same events out of order
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    List<OutboxEvent> findByOrderByChangeVersionAsc(Limit limit);
+
+    @Query("select min(e.createdAt) from OutboxEvent e")
+    Instant findOldestCreatedAt();
+}
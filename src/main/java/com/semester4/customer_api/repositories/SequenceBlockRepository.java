@@ -0,0 +1,28 @@
+package com.semester4.customer_api.repositories;
+
+import com.semester4.customer_api.models.SequenceBlock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface SequenceBlockRepository extends JpaRepository<SequenceBlock, String> {
+
+    // ranges are taken on the SequenceConnectionPool, see SequenceConnectionPool.advance
+
+    @Query("select b.nextValue from SequenceBlock b where b.name = :name")
+    Long currentValue(String name);
+
+    // the first version of the oldest open lease, or the next version to hand out when none is open
+    @Query("select coalesce((select min(l.firstVersion) from ChangeVersionLease l where l.expiresAt > :now), b.nextValue)"
+            + " from SequenceBlock b where b.name = :name")
+    Long findLeaseLimit(String name, Instant now);
+
+    // a plain insert, so a concurrent creator fails instead of overwriting the row
+    @Modifying
+    @Query("insert into SequenceBlock (name, nextValue) values (:name, :nextValue)")
+    int create(String name, long nextValue);
+}
@@ -0,0 +1,46 @@
+package com.semester4.customer_api.security;
+
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+
+/**
+ * Runs the password encoder once per credential and serves repeat logins from the {@link CredentialCache}.
+ * Failed attempts are never cached.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final CredentialCache credentialCache;
+
+    public CachingAuthenticationProvider(AuthenticationProvider delegate, CredentialCache credentialCache) {
+        this.delegate = delegate;
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public Authentication authenticate(Authentication authentication) throws AuthenticationException {
+        if (!(authentication.getCredentials() instanceof String password)) {
+            return delegate.authenticate(authentication);
+        }
+
+        String key = credentialCache.keyFor(authentication.getName(), password);
+        Authentication cached = credentialCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        Authentication verified = credentialCache.verificationTimer()
+                .record(() -> delegate.authenticate(authentication));
+        if (verified != null && verified.isAuthenticated()) {
+            credentialCache.put(key, verified);
+        }
+        return verified;
+    }
+
+    @Override
+    public boolean supports(Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication);
+    }
+}
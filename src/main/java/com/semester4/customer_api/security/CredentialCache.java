@@ -0,0 +1,99 @@
+package com.semester4.customer_api.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Successful username/password verifications, keyed by an HMAC of the credential.
+ * The HMAC key is random per process, so neither passwords nor reusable hashes are kept.
+ */
+@Component
+public class CredentialCache {
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final Cache<String, Authentication> verified;
+    private final SecretKeySpec secretKey;
+    private final Mac prototype;
+    private final Timer verificationTimer;
+    private final Counter savedCounter;
+
+    public CredentialCache(MeterRegistry meterRegistry,
+                           @Value("${customer.security.credential-cache.ttl:5m}") Duration ttl,
+                           @Value("${customer.security.credential-cache.max-size:10000}") long maxSize) {
+        this.verified = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .recordStats()
+                .build();
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.secretKey = new SecretKeySpec(secret, HMAC_ALGORITHM);
+        this.prototype = newMac(secretKey);
+        this.verificationTimer = Timer.builder("security.credentials.verification")
+                .description("Time spent verifying credentials against the password encoder")
+                .register(meterRegistry);
+        this.savedCounter = Counter.builder("security.credentials.verification.saved")
+                .description("Estimated password encoder time avoided by credential cache hits")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        CaffeineCacheMetrics.monitor(meterRegistry, verified, "credentials");
+    }
+
+    public Authentication get(String key) {
+        Authentication authentication = verified.getIfPresent(key);
+        if (authentication != null) {
+            savedCounter.increment(verificationTimer.mean(TimeUnit.SECONDS));
+        }
+        return authentication;
+    }
+
+    public void put(String key, Authentication authentication) {
+        verified.put(key, authentication);
+    }
+
+    public Timer verificationTimer() {
+        return verificationTimer;
+    }
+
+    public void invalidateAll() {
+        verified.invalidateAll();
+    }
+
+    public String keyFor(String username, String password) {
+        Mac mac;
+        try {
+            mac = (Mac) prototype.clone();
+        } catch (CloneNotSupportedException e) {
+            mac = newMac(secretKey);
+        }
+        mac.update(username.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0);
+        return HexFormat.of().formatHex(mac.doFinal(password.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private static Mac newMac(SecretKeySpec secretKey) {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HMAC-SHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.semester4.customer_api.security;
+
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+
+/**
+ * In-memory user store that drops every cached credential whenever a user is added, changed or removed.
+ */
+public class CredentialCacheInvalidatingUserDetailsManager extends InMemoryUserDetailsManager {
+
+    private final CredentialCache credentialCache;
+
+    public CredentialCacheInvalidatingUserDetailsManager(CredentialCache credentialCache, UserDetails... users) {
+        super(users);
+        this.credentialCache = credentialCache;
+    }
+
+    @Override
+    public void createUser(UserDetails user) {
+        super.createUser(user);
+        invalidate();
+    }
+
+    @Override
+    public void updateUser(UserDetails user) {
+        super.updateUser(user);
+        invalidate();
+    }
+
+    @Override
+    public void deleteUser(String username) {
+        super.deleteUser(username);
+        invalidate();
+    }
+
+    @Override
+    public void changePassword(String oldPassword, String newPassword) {
+        super.changePassword(oldPassword, newPassword);
+        invalidate();
+    }
+
+    @Override
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        UserDetails updated = super.updatePassword(user, newPassword);
+        invalidate();
+        return updated;
+    }
+
+    private void invalidate() {
+        // the super constructor creates the initial users before this field is set
+        if (credentialCache != null) {
+            credentialCache.invalidateAll();
+        }
+    }
+}
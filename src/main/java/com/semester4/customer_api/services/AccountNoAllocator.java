@@ -0,0 +1,195 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.repositories.SequenceBlockRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.LongStream;
+
+/**
+ * Hands out 10-digit account numbers from blocks reserved in the Sequence_Block table.
+ * Numbers inside a block come from memory. Once half of a block is used the next one is reserved on a background
+ * thread through the {@link SequenceConnectionPool}, so callers, which usually hold a pool connection in their own
+ * transaction, never need a second one. Only callers that run through a block before its successor is reserved
+ * wait, all of them for the reservation already under way.
+ * <p>
+ * The sequence starts at the lowest 10-digit number. Older rows carry randomly generated numbers spread over the
+ * whole range, and imports keep the numbers of their files, so every block is checked against the Customer table
+ * when it is reserved and the numbers already stored in it are skipped.
+ */
+@Component
+public class AccountNoAllocator implements SmartInitializingSingleton {
+    static final String SEQUENCE_NAME = "account_no";
+    static final long MIN_ACCOUNT_NO = 1_000_000_000L;
+    static final long MAX_ACCOUNT_NO = 9_999_999_999L;
+
+    private static final String TAKEN =
+            "select Account_No from Customer where Account_No >= ? and Account_No < ? order by Account_No";
+
+    @Autowired
+    private SequenceBlockRepository sequenceBlockRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private SequenceConnectionPool sequenceConnectionPool;
+
+    @Value("${customer.account-no.block-size:100}")
+    private int blockSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-account-no-reserve");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Block current = new Block(0, 0, new long[0]);
+    // a lock rather than a monitor, so virtual threads waiting on it do not pin their carriers
+    private final ReentrantLock lock = new ReentrantLock();
+    // the block that replaces current, guarded by lock
+    private CompletableFuture<Block> reserved;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        reserveAhead();
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    public long next() {
+        while (true) {
+            Block block = current;
+            long accountNo = block.next.getAndIncrement();
+            if (accountNo < block.end) {
+                if (accountNo == block.reserveAheadAt) {
+                    reserveAhead();
+                }
+                if (Arrays.binarySearch(block.taken, accountNo) >= 0) {
+                    continue;
+                }
+                return accountNo;
+            }
+            replace(block);
+        }
+    }
+
+    private void replace(Block exhausted) {
+        if (current != exhausted) {
+            return;
+        }
+        CompletableFuture<Block> pending = reserveAhead();
+        Block block;
+        try {
+            block = pending.join();
+        } catch (CompletionException e) {
+            lock.lock();
+            try {
+                // let the next caller try again
+                if (reserved == pending) {
+                    reserved = null;
+                }
+            } finally {
+                lock.unlock();
+            }
+            throw e.getCause() instanceof RuntimeException cause ? cause : e;
+        }
+        lock.lock();
+        try {
+            // other callers waited for the same block, the first one puts it in place
+            if (current == exhausted && reserved == pending) {
+                current = block;
+                reserved = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private CompletableFuture<Block> reserveAhead() {
+        lock.lock();
+        try {
+            if (reserved == null) {
+                reserved = CompletableFuture.supplyAsync(this::reserveBlock, executor);
+            }
+            return reserved;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Block reserveBlock() {
+        Block block = sequenceConnectionPool.inTransaction(connection -> {
+            Long end = SequenceConnectionPool.advance(connection, SEQUENCE_NAME, blockSize);
+            if (end == null) {
+                return null;
+            }
+            if (end - 1 > MAX_ACCOUNT_NO) {
+                throw new IllegalStateException("Account numbers exhausted");
+            }
+            return new Block(end - blockSize, end, taken(connection, end - blockSize, end));
+        });
+
+        if (block == null) {
+            createSequence();
+            return reserveBlock();
+        }
+        return block;
+    }
+
+    private static long[] taken(Connection connection, long start, long end) throws SQLException {
+        try (PreparedStatement taken = connection.prepareStatement(TAKEN)) {
+            taken.setLong(1, start);
+            taken.setLong(2, end);
+            try (ResultSet result = taken.executeQuery()) {
+                LongStream.Builder accountNos = LongStream.builder();
+                while (result.next()) {
+                    accountNos.add(result.getLong(1));
+                }
+                return accountNos.build().toArray();
+            }
+        }
+    }
+
+    private void createSequence() {
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    sequenceBlockRepository.create(SEQUENCE_NAME, MIN_ACCOUNT_NO));
+        } catch (DataIntegrityViolationException e) {
+            // another instance created it first
+        }
+    }
+
+    private static final class Block {
+        private final AtomicLong next;
+        private final long end;
+        private final long reserveAheadAt;
+        // sorted
+        private final long[] taken;
+
+        private Block(long start, long end, long[] taken) {
+            this.next = new AtomicLong(start);
+            this.end = end;
+            this.taken = taken;
+            this.reserveAheadAt = start + (end - start) / 2;
+        }
+    }
+}
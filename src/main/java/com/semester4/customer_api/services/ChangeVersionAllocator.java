@@ -0,0 +1,197 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.repositories.SequenceBlockRepository;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Hands out the change versions of the customer change feed from the Sequence_Block table.
+ * <p>
+ * Versions are taken in a short transaction of their own that advances the sequence and records a
+ * Change_Version_Lease for them; the lease is removed once the writing transaction has committed or rolled back.
+ * The row lock on the sequence is therefore held for two statements rather than for the whole write, so writers,
+ * bulk chunks among them, no longer queue behind each other. Readers stop at the first version of the oldest open
+ * lease, so they never step past a version that is still being written, at the price of waiting for the slowest
+ * write in flight.
+ * <p>
+ * The versions cannot come from the writing transaction itself, say from a database sequence: readers would have
+ * no way to tell a version still being written from one that was never used, and would step past it. The short
+ * transactions run on the {@link SequenceConnectionPool} instead, two statements to take the versions and one to
+ * release them, several writers at a time.
+ * <p>
+ * Every lease names the instance that holds it, and the instance renews its open leases every third of
+ * lease-timeout. A lease left behind by an instance that died mid-write therefore stops holding readers back
+ * within lease-timeout, however long writes take.
+ */
+@Component
+public class ChangeVersionAllocator implements SmartInitializingSingleton {
+
+    private static final Logger logger = Logger.getLogger(ChangeVersionAllocator.class.getName());
+
+    static final String SEQUENCE_NAME = "change_version";
+
+    // the first of the versions the advance just took, read back as the generated key
+    private static final String LEASE = "insert into Change_Version_Lease (First_Version, Owner, Expires_At) "
+            + "select Next_Value - ?, ?, ? from Sequence_Block where Name = ?";
+    private static final String RELEASE = "delete from Change_Version_Lease where First_Version = ?";
+    private static final String RENEW = "update Change_Version_Lease set Expires_At = ? where Owner = ?";
+    // the leases of writes that never finished
+    private static final String SWEEP = "delete from Change_Version_Lease where Expires_At < ?";
+
+    @Autowired
+    private SequenceBlockRepository sequenceBlockRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private SequenceConnectionPool sequenceConnectionPool;
+
+    @Value("${customer.change-feed.lease-timeout:30s}")
+    private Duration leaseTimeout;
+
+    private final String owner = UUID.randomUUID().toString();
+    private final AtomicInteger openLeases = new AtomicInteger();
+    private final ScheduledExecutorService renewer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-change-version-lease");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long period = Math.max(1, leaseTimeout.toMillis() / 3);
+        renewer.scheduleWithFixedDelay(this::renewLeases, period, period, TimeUnit.MILLISECONDS);
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                if (sequenceBlockRepository.currentValue(SEQUENCE_NAME) != null) {
+                    return;
+                }
+                // rows written before the feed existed take their account number as version, which is unique
+                // and below every version handed out from here on
+                int assigned = customerRepository.assignMissingChangeVersions();
+                Long highest = customerRepository.findMaxAccountNo();
+                sequenceBlockRepository.create(SEQUENCE_NAME, highest == null ? 1L : highest + 1);
+                logger.info("Created the change version sequence, " + assigned + " existing customers versioned");
+            });
+        } catch (DataIntegrityViolationException e) {
+            // another instance created it first
+        }
+    }
+
+    /**
+     * Takes {@code count} consecutive versions for the current transaction.
+     *
+     * @return the first of them
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public long next(int count) {
+        long first = sequenceConnectionPool.inTransaction(connection -> {
+            try (PreparedStatement advance = connection.prepareStatement(SequenceConnectionPool.ADVANCE)) {
+                advance.setLong(1, count);
+                advance.setString(2, SEQUENCE_NAME);
+                if (advance.executeUpdate() == 0) {
+                    throw new IllegalStateException("The " + SEQUENCE_NAME + " sequence does not exist");
+                }
+            }
+            try (PreparedStatement lease = connection.prepareStatement(LEASE, new String[]{"first_version"})) {
+                lease.setLong(1, count);
+                lease.setString(2, owner);
+                lease.setObject(3, expiry());
+                lease.setString(4, SEQUENCE_NAME);
+                lease.executeUpdate();
+                try (ResultSet keys = lease.getGeneratedKeys()) {
+                    keys.next();
+                    return keys.getLong(1);
+                }
+            }
+        });
+        openLeases.incrementAndGet();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                release(first);
+            }
+        });
+        return first;
+    }
+
+    /**
+     * Every version below the returned one belongs to a finished write; readers stop there so they never
+     * skip a version that is still being written.
+     */
+    public long committedLimit() {
+        Long limit = sequenceBlockRepository.findLeaseLimit(SEQUENCE_NAME, Instant.now());
+        return limit == null ? 0L : limit;
+    }
+
+    private void release(long firstVersion) {
+        try {
+            sequenceConnectionPool.inTransaction(connection -> {
+                try (PreparedStatement release = connection.prepareStatement(RELEASE)) {
+                    release.setLong(1, firstVersion);
+                    return release.executeUpdate();
+                }
+            });
+        } catch (RuntimeException e) {
+            // readers stay behind this version until the sweep removes the lease once it has expired
+            logger.log(Level.WARNING, "Could not release change version " + firstVersion, e);
+        } finally {
+            openLeases.decrementAndGet();
+        }
+    }
+
+    void renewLeases() {
+        try {
+            sequenceConnectionPool.inTransaction(connection -> {
+                if (openLeases.get() > 0) {
+                    try (PreparedStatement renew = connection.prepareStatement(RENEW)) {
+                        renew.setObject(1, expiry());
+                        renew.setString(2, owner);
+                        renew.executeUpdate();
+                    }
+                }
+                try (PreparedStatement sweep = connection.prepareStatement(SWEEP)) {
+                    sweep.setObject(1, OffsetDateTime.now(ZoneOffset.UTC));
+                    return sweep.executeUpdate();
+                }
+            });
+        } catch (RuntimeException e) {
+            logger.log(Level.WARNING, "Could not renew the change version leases", e);
+        }
+    }
+
+    private OffsetDateTime expiry() {
+        return OffsetDateTime.ofInstant(Instant.now().plus(leaseTimeout), ZoneOffset.UTC);
+    }
+
+    @PreDestroy
+    void stop() {
+        renewer.shutdownNow();
+    }
+}
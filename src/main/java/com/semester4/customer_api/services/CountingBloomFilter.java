@@ -0,0 +1,88 @@
+package com.semester4.customer_api.services;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Bloom filter with a byte counter per slot instead of a bit, so values can be removed again.
+ * A counter that reaches 255 sticks there: it can no longer be decremented safely, which at worst
+ * leaves a false positive behind. Safe for concurrent use.
+ */
+public final class CountingBloomFilter {
+
+    private static final VarHandle COUNTERS = MethodHandles.arrayElementVarHandle(byte[].class);
+    private static final int SATURATED = 0xFF;
+
+    private final byte[] counters;
+    private final int hashes;
+
+    public CountingBloomFilter(long expectedInsertions, double falsePositiveRate) {
+        long expected = Math.max(1, expectedInsertions);
+        double slots = -expected * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2));
+        this.counters = new byte[(int) Math.min(Integer.MAX_VALUE - 8, Math.max(64, (long) Math.ceil(slots)))];
+        this.hashes = Math.max(1, (int) Math.round((double) counters.length / expected * Math.log(2)));
+    }
+
+    public void add(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            int slot = slot(hash, i);
+            int count;
+            do {
+                count = counter(slot);
+            } while (count != SATURATED && !COUNTERS.compareAndSet(counters, slot, (byte) count, (byte) (count + 1)));
+        }
+    }
+
+    public void remove(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            int slot = slot(hash, i);
+            int count;
+            do {
+                count = counter(slot);
+            } while (count != 0 && count != SATURATED
+                    && !COUNTERS.compareAndSet(counters, slot, (byte) count, (byte) (count - 1)));
+        }
+    }
+
+    // false means the value was never added; true means it probably was
+    public boolean mightContain(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            if (counter(slot(hash, i)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public int size() {
+        return counters.length;
+    }
+
+    private int counter(int slot) {
+        return (byte) COUNTERS.getVolatile(counters, slot) & 0xFF;
+    }
+
+    // double hashing: slot i is h1 + i * h2, which keeps the k slots independent enough for a Bloom filter
+    private int slot(long hash, int i) {
+        int combined = (int) hash + i * (int) (hash >>> 32);
+        return (combined & Integer.MAX_VALUE) % counters.length;
+    }
+
+    // 64-bit FNV-1a over the characters, finished with the MurmurHash3 mixer
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,79 @@
+package com.semester4.customer_api.services;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Encodes CSV rows (RFC 4180 quoting) straight into one fixed-size buffer and writes it to the channel whenever it
+ * fills up, so memory stays the same however many rows go through. The channel is left open.
+ */
+final class CsvChannelWriter {
+
+    private final WritableByteChannel channel;
+    private final ByteBuffer buffer;
+    private final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder();
+    private final StringBuilder row = new StringBuilder(256);
+
+    CsvChannelWriter(WritableByteChannel channel, int bufferSize) {
+        this.channel = channel;
+        this.buffer = ByteBuffer.allocate(bufferSize);
+    }
+
+    void writeRow(Object... values) throws IOException {
+        row.setLength(0);
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            appendValue(values[i]);
+        }
+        row.append("\r\n");
+
+        CharBuffer chars = CharBuffer.wrap(row);
+        while (encoder.encode(chars, buffer, true) == CoderResult.OVERFLOW) {
+            drain();
+        }
+        encoder.reset();
+    }
+
+    void flush() throws IOException {
+        drain();
+    }
+
+    private void appendValue(Object value) {
+        if (value == null) {
+            return;
+        }
+        if (value instanceof Number || value instanceof Enum<?>) {
+            row.append(value);
+            return;
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            row.append(text);
+            return;
+        }
+        row.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                row.append('"');
+            }
+            row.append(c);
+        }
+        row.append('"');
+    }
+
+    private void drain() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+}
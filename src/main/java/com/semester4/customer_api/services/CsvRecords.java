@@ -0,0 +1,53 @@
+package com.semester4.customer_api.services;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits RFC 4180 CSV records, the counterpart of {@link CsvChannelWriter}. A record may span several lines
+ * when a quoted field contains line breaks.
+ */
+final class CsvRecords {
+
+    private CsvRecords() {
+    }
+
+    // true while the text read so far ends inside a quoted field, so the record continues on the next line
+    static boolean isOpen(CharSequence text) {
+        boolean open = false;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '"') {
+                open = !open;
+            }
+        }
+        return open;
+    }
+
+    static List<String> split(String record) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                    field.append('"');
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c != '\r') {
+                field.append(c);
+            }
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+}
@@ -0,0 +1,38 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+
+/**
+ * Published by CustomerServiceImpl for every stored or deleted customer.
+ * Listeners bound to the transaction only see it once the change has committed.
+ * changeVersion is the change feed version of the write; the changes of one customer take increasing versions
+ * in the order they commit. previousEmail is set when an update changed the email. A patch leaves fullName and
+ * email null when it did not change them.
+ */
+public record CustomerChangedEvent(long accountNo, long changeVersion, FullName fullName, String email,
+                                   String previousEmail, Change change) {
+
+    public enum Change {
+        CREATED, UPDATED, DELETED
+    }
+
+    static CustomerChangedEvent created(Customer customer) {
+        return new CustomerChangedEvent(customer.getAccountNo(), customer.getChangeVersion(), customer.getFullName(),
+                customer.getEmail(), null, Change.CREATED);
+    }
+
+    static CustomerChangedEvent updated(Customer customer, String previousEmail) {
+        return new CustomerChangedEvent(customer.getAccountNo(), customer.getChangeVersion(), customer.getFullName(),
+                customer.getEmail(), previousEmail, Change.UPDATED);
+    }
+
+    static CustomerChangedEvent patched(long accountNo, long changeVersion, FullName fullName, String email,
+                                        String previousEmail) {
+        return new CustomerChangedEvent(accountNo, changeVersion, fullName, email, previousEmail, Change.UPDATED);
+    }
+
+    static CustomerChangedEvent deleted(long accountNo, long changeVersion, String email) {
+        return new CustomerChangedEvent(accountNo, changeVersion, null, email, null, Change.DELETED);
+    }
+}
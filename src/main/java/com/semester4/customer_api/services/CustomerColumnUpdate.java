@@ -0,0 +1,91 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.models.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One SQL UPDATE of the columns a customer type declares itself, in whichever table the current storage layout
+ * maps them to. Table and column names come from the Hibernate mapping.
+ * <p>
+ * HQL and criteria updates of an entity in the JOINED hierarchy go through a temporary id table: an insert of
+ * the matching ids, the update and a delete, where a single statement by primary key is enough.
+ */
+final class CustomerColumnUpdate {
+
+    private final AbstractEntityPersister persister;
+    private final StringBuilder assignments = new StringBuilder();
+    private final List<Object> values = new ArrayList<>();
+
+    CustomerColumnUpdate(EntityManager entityManager, Class<? extends Customer> type) {
+        this.persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(type);
+    }
+
+    // null leaves the column alone; enums are mapped as strings
+    CustomerColumnUpdate set(String property, Object value) {
+        if (value != null) {
+            assign(persister.getPropertyColumnNames(property)[0] + " = ?");
+            values.add(value instanceof Enum<?> constant ? constant.name() : value);
+        }
+        return this;
+    }
+
+    CustomerColumnUpdate setNull(String property) {
+        assign(persister.getPropertyColumnNames(property)[0] + " = null");
+        return this;
+    }
+
+    CustomerColumnUpdate incrementVersion() {
+        String version = persister.getVersionColumnName();
+        assign(version + " = " + version + " + 1");
+        return this;
+    }
+
+    boolean isEmpty() {
+        return assignments.isEmpty();
+    }
+
+    /**
+     * @param expectedVersion if not null, only a row at this version is updated
+     * @return the number of rows updated, 0 if there is no such customer of this type
+     */
+    int execute(EntityManager entityManager, long accountNo, Long expectedVersion) {
+        StringBuilder sql = new StringBuilder("update ").append(persister.getTableName())
+                .append(" set ").append(assignments)
+                .append(" where ").append(persister.getIdentifierColumnNames()[0]).append(" = ?");
+        // in the single-table layout the subtype shares the Customer table, so its rows are told apart by type
+        if (persister.isInherited() && persister.getTableName().equals(persister.getRootTableName())) {
+            sql.append(" and ").append(persister.getDiscriminatorColumnName())
+                    .append(" = ").append(persister.getDiscriminatorSQLValue());
+        }
+        if (expectedVersion != null) {
+            sql.append(" and ").append(persister.getVersionColumnName()).append(" = ?");
+        }
+
+        Query update = entityManager.createNativeQuery(sql.toString());
+        int position = 1;
+        for (Object value : values) {
+            update.setParameter(position++, value);
+        }
+        update.setParameter(position++, accountNo);
+        if (expectedVersion != null) {
+            update.setParameter(position, expectedVersion);
+        }
+        return update.executeUpdate();
+    }
+
+    private void assign(String assignment) {
+        if (!assignments.isEmpty()) {
+            assignments.append(", ");
+        }
+        assignments.append(assignment);
+    }
+}
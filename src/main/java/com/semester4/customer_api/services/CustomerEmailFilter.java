@@ -0,0 +1,106 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.repositories.CustomerRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Objects;
+import java.util.logging.Logger;
+import java.util.stream.Stream;
+
+/**
+ * Answers "is this email taken?" without a query for emails that were never stored.
+ * <p>
+ * A counting Bloom filter of every stored email is built before the web server starts and kept current from
+ * committed {@link CustomerChangedEvent}s. Only when the filter says "maybe" is the unique email index queried.
+ * The unique constraint stays the final guard, so a stale filter costs a failed insert, never a duplicate.
+ */
+@Component
+public class CustomerEmailFilter implements SmartInitializingSingleton {
+
+    private static final Logger logger = Logger.getLogger(CustomerEmailFilter.class.getName());
+
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final Counter newCounter;
+    private final Counter falsePositiveCounter;
+    private final Counter duplicateCounter;
+
+    private volatile CountingBloomFilter filter;
+
+    public CustomerEmailFilter(MeterRegistry meterRegistry,
+                               @Value("${customer.email-filter.expected-insertions:1000000}") long expectedInsertions,
+                               @Value("${customer.email-filter.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = new CountingBloomFilter(expectedInsertions, falsePositiveRate);
+        this.newCounter = checks(meterRegistry, "new");
+        this.falsePositiveCounter = checks(meterRegistry, "false_positive");
+        this.duplicateCounter = checks(meterRegistry, "duplicate");
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        long stored = customerRepository.count();
+        // leave room to grow before the false positive rate degrades
+        CountingBloomFilter loaded = new CountingBloomFilter(Math.max(expectedInsertions, stored * 2), falsePositiveRate);
+        transaction.executeWithoutResult(status -> {
+            try (Stream<String> emails = customerRepository.streamEmails()) {
+                emails.forEach(loaded::add);
+            }
+        });
+        filter = loaded;
+        logger.info("Loaded " + stored + " customer emails into a " + loaded.size() + " slot filter in "
+                + (System.nanoTime() - start) / 1_000_000 + " ms");
+    }
+
+    public boolean exists(String email) {
+        if (email == null || !filter.mightContain(email)) {
+            newCounter.increment();
+            return false;
+        }
+        boolean exists = customerRepository.existsByEmail(email);
+        (exists ? duplicateCounter : falsePositiveCounter).increment();
+        return exists;
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCustomerChanged(CustomerChangedEvent event) {
+        if (event.email() == null) {
+            return;
+        }
+        switch (event.change()) {
+            case CREATED, UPDATED -> {
+                if (!Objects.equals(event.email(), event.previousEmail())) {
+                    if (event.previousEmail() != null) {
+                        filter.remove(event.previousEmail());
+                    }
+                    filter.add(event.email());
+                }
+            }
+            case DELETED -> filter.remove(event.email());
+        }
+    }
+
+    private static Counter checks(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("customer.email.filter.checks")
+                .description("Duplicate email checks by outcome; false_positive and duplicate needed a database lookup")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,259 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.ExportProgress;
+import com.semester4.customer_api.models.Corporate;
+import com.semester4.customer_api.models.Individual;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports customers with their addresses as CSV, one row per address (or one for a customer without any).
+ * <p>
+ * Rows are read through a server-side cursor and written through a fixed-size buffer, so memory does not grow with
+ * the table. A directory export splits the account numbers into chunks of {@code chunk-size} customers, recorded in
+ * chunks.csv on the first run, and writes each chunk to its own gzip file on {@code parallelism} threads. A chunk
+ * file only appears once it is complete, so running the same export again resumes with the missing chunks.
+ */
+@Component
+public class CustomerExporter {
+
+    private static final Logger logger = Logger.getLogger(CustomerExporter.class.getName());
+    private static final Pattern EXPORT_NAME = Pattern.compile("[A-Za-z0-9_-]{1,64}");
+    private static final String MANIFEST = "chunks.csv";
+
+    static final String[] HEADER = {"account_no", "customer_type", "first_name", "last_name", "middle_name", "email",
+            "phone_number", "gender", "date_of_birth", "company_type", "address_id", "door_no", "street", "city",
+            "state", "zip", "country"};
+
+    // treat() keeps the query independent of the storage layout
+    private static final String EXPORT_QUERY = "select c.accountNo, type(c), c.fullName.firstName, c.fullName.lastName, "
+            + "c.fullName.middleName, c.email, c.phoneNumber, treat(c as Individual).gender, "
+            + "treat(c as Individual).dateOfBirth, treat(c as Corporate).companyType, "
+            + "a.addressId, a.doorNo, a.street, a.city, a.state, a.zip, a.country "
+            + "from Customer c left join Address a on a.customer = c "
+            + "where c.accountNo > :after and c.accountNo <= :upTo "
+            + "order by c.accountNo, a.addressId";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${customer.export.directory:export}")
+    private Path baseDirectory;
+    @Value("${customer.export.chunk-size:100000}")
+    private int chunkSize;
+    @Value("${customer.export.parallelism:4}")
+    private int parallelism;
+    @Value("${customer.export.buffer-size:65536}")
+    private int bufferSize;
+    @Value("${customer.export.fetch-size:1000}")
+    private int fetchSize;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-export");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<ExportProgress> progress = new AtomicReference<>();
+
+    /**
+     * Writes the customers with {@code after < accountNo <= upTo} to the channel, which is left open.
+     *
+     * @return the number of rows written, not counting the header
+     */
+    public long writeCsv(long after, long upTo, WritableByteChannel channel) throws IOException {
+        CsvChannelWriter writer = new CsvChannelWriter(channel, bufferSize);
+        writer.writeRow((Object[]) HEADER);
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        try {
+            Long rows = transaction.execute(status -> {
+                try (Stream<Object[]> results = entityManager.createQuery(EXPORT_QUERY, Object[].class)
+                        .setParameter("after", after)
+                        .setParameter("upTo", upTo)
+                        .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                        .setHint(HibernateHints.HINT_READ_ONLY, true)
+                        .getResultStream()) {
+                    long written = 0;
+                    for (Iterator<Object[]> it = results.iterator(); it.hasNext(); written++) {
+                        Object[] row = it.next();
+                        row[1] = customerType((Class<?>) row[1]);
+                        writer.writeRow(row);
+                    }
+                    return written;
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+            return rows;
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Starts exporting every customer into {@code <customer.export.directory>/<name>} in the background,
+     * or resumes an earlier export of the same name.
+     *
+     * @throws IllegalStateException if an export is already running
+     * @throws IllegalArgumentException if the name is not a plain file name
+     */
+    public ExportProgress start(String name) {
+        if (!EXPORT_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("Export names may only contain letters, digits, '-' and '_'");
+        }
+        Path directory = baseDirectory.resolve(name);
+        ExportProgress started = new ExportProgress(directory.toString());
+        ExportProgress previous = progress.get();
+        if ((previous != null && previous.getState() == ExportProgress.State.RUNNING)
+                || !progress.compareAndSet(previous, started)) {
+            throw new IllegalStateException("An export is already running");
+        }
+        executor.execute(() -> export(directory, started));
+        return started;
+    }
+
+    public ExportProgress progress() {
+        return progress.get();
+    }
+
+    void export(Path directory, ExportProgress export) {
+        ExecutorService workers = Executors.newFixedThreadPool(parallelism);
+        try {
+            Files.createDirectories(directory);
+            List<long[]> chunks = chunks(directory);
+            export.setTotalChunks(chunks.size());
+            logger.info("Exporting customers to " + directory + " in " + chunks.size() + " chunks");
+
+            List<Future<?>> written = new ArrayList<>(chunks.size());
+            for (int i = 0; i < chunks.size(); i++) {
+                Path file = directory.resolve(String.format("customers-%05d.csv.gz", i));
+                long[] range = chunks.get(i);
+                written.add(workers.submit(() -> {
+                    exportChunk(range[0], range[1], file, export);
+                    return null;
+                }));
+            }
+            for (Future<?> chunk : written) {
+                chunk.get();
+            }
+            export.finish(null);
+            logger.info("Export to " + directory + " finished: " + export.getWrittenChunks() + " chunks written, "
+                    + export.getSkippedChunks() + " already present, " + export.getRows() + " rows");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            export.finish("Interrupted");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Export to " + directory + " failed", e);
+            export.finish(e.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private void exportChunk(long after, long upTo, Path file, ExportProgress export) throws IOException {
+        if (Files.exists(file)) {
+            export.chunkSkipped();
+            return;
+        }
+        Path part = file.resolveSibling(file.getFileName() + ".part");
+        long rows;
+        try (FileChannel out = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+             GZIPOutputStream gzip = new GZIPOutputStream(Channels.newOutputStream(out), bufferSize)) {
+            rows = writeCsv(after, upTo, Channels.newChannel(gzip));
+            gzip.finish();
+            out.force(true);
+        }
+        Files.move(part, file, StandardCopyOption.ATOMIC_MOVE);
+        export.chunkWritten(rows);
+    }
+
+    // chunk boundaries are fixed on the first run, so a resumed export writes exactly the missing ranges
+    private List<long[]> chunks(Path directory) throws IOException {
+        Path manifest = directory.resolve(MANIFEST);
+        if (!Files.exists(manifest)) {
+            List<String> lines = new ArrayList<>();
+            long after = 0L;
+            for (long boundary : boundaries()) {
+                lines.add(after + "," + boundary);
+                after = boundary;
+            }
+            // the last chunk is open ended and also takes customers added while exporting
+            lines.add(after + "," + Long.MAX_VALUE);
+            Path part = directory.resolve(MANIFEST + ".part");
+            Files.write(part, lines, StandardCharsets.UTF_8);
+            Files.move(part, manifest, StandardCopyOption.ATOMIC_MOVE);
+        }
+        return Files.readAllLines(manifest, StandardCharsets.UTF_8).stream()
+                .map(line -> line.split(","))
+                .map(range -> new long[]{Long.parseLong(range[0]), Long.parseLong(range[1])})
+                .toList();
+    }
+
+    // every chunk-size-th account number, read from the primary key index without loading customers
+    private List<Long> boundaries() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        return transaction.execute(status -> {
+            List<Long> boundaries = new ArrayList<>();
+            try (Stream<Long> accountNos = entityManager
+                    .createQuery("select c.accountNo from Customer c order by c.accountNo", Long.class)
+                    .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                    .getResultStream()) {
+                long count = 0;
+                for (Iterator<Long> it = accountNos.iterator(); it.hasNext(); ) {
+                    long accountNo = it.next();
+                    if (++count % chunkSize == 0) {
+                        boundaries.add(accountNo);
+                    }
+                }
+            }
+            return boundaries;
+        });
+    }
+
+    private static String customerType(Class<?> type) {
+        if (Individual.class.equals(type)) {
+            return "INDIVIDUAL";
+        }
+        return Corporate.class.equals(type) ? "CORPORATE" : "CUSTOMER";
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
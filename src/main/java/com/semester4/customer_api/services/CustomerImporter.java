@@ -0,0 +1,414 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.AddressDTO;
+import com.semester4.customer_api.dto.BulkCustomerResult;
+import com.semester4.customer_api.dto.CustomerDTO;
+import com.semester4.customer_api.dto.CustomerMapper;
+import com.semester4.customer_api.dto.FullNameDTO;
+import com.semester4.customer_api.dto.ImportProgress;
+import com.semester4.customer_api.exceptions.InvalidCustomerException;
+import com.semester4.customer_api.models.Address;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Corporate;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.SecureRandom;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports customers from a CSV file with a header row, one customer per row, in the columns of {@link #COLUMNS}.
+ * The columns may come in any order and all but the name, email and phone number may be left out. Consecutive rows with the same
+ * account number are one customer with an address on each row, so files written by {@link CustomerExporter} load
+ * as they are; customers without a password get a random one that has to be reset. Account numbers in the file
+ * are kept, and {@link AccountNoAllocator} skips them when it reserves the block they fall in.
+ * <p>
+ * One thread reads the file and cuts it into chunks of about {@code chunk-size} records, never between the rows of
+ * one customer. Up to {@code parallelism}
+ * workers parse, validate and store the chunks through {@link CustomerService#addCustomers}, which writes them as
+ * JDBC batches. When every worker is busy the reading thread processes the next chunk itself, so memory stays
+ * bounded however large the file is. Rows that cannot be imported go to {@code <file>.errors.csv} with their line
+ * number and the reason. A quoted field may span at most {@code max-record-lines} lines; a record still open after
+ * that, usually because of a stray quote, is rejected and the lines after it are read again.
+ */
+@Component
+public class CustomerImporter {
+
+    private static final Logger logger = Logger.getLogger(CustomerImporter.class.getName());
+    private static final Pattern FILE_NAME = Pattern.compile("[A-Za-z0-9_-][A-Za-z0-9_.-]{0,127}");
+    static final String ERROR_FILE_SUFFIX = ".errors.csv";
+
+    static final List<String> COLUMNS = List.of("account_no", "customer_type", "first_name", "last_name",
+            "middle_name", "email", "password", "phone_number", "gender", "date_of_birth", "company_type",
+            "door_no", "street", "city", "state", "zip", "country");
+    private static final List<String> REQUIRED_COLUMNS = List.of("first_name", "last_name", "email", "phone_number");
+    private static final String PASSWORD_CHARACTERS = "ABCDEFGHJKLMNPQRSTUVWXYZabcdefghijkmnopqrstuvwxyz23456789";
+    // the Password column holds at most 10 characters
+    private static final int PASSWORD_LENGTH = 10;
+    private static final SecureRandom RANDOM = new SecureRandom();
+    private static final List<String> ADDRESS_COLUMNS = List.of("door_no", "street", "city", "state", "zip", "country");
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerMapper customerMapper;
+    @Autowired
+    private Validator validator;
+
+    @Value("${customer.import.directory:import}")
+    private Path baseDirectory;
+    @Value("${customer.import.chunk-size:5000}")
+    private int chunkSize;
+    @Value("${customer.import.parallelism:4}")
+    private int parallelism;
+    @Value("${customer.import.buffer-size:65536}")
+    private int bufferSize;
+    @Value("${customer.import.max-record-lines:100}")
+    private int maxRecordLines;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-import");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<ImportProgress> progress = new AtomicReference<>();
+
+    private record Row(long line, String text) {
+    }
+
+    /**
+     * Starts importing {@code <customer.import.directory>/<name>} in the background. Files ending in .gz are
+     * decompressed while reading.
+     *
+     * @throws IllegalStateException if an import is already running
+     * @throws IllegalArgumentException if the name is not a plain file name or there is no such file
+     */
+    public ImportProgress start(String name) throws IOException {
+        if (!FILE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("File names may only contain letters, digits, '.', '-' and '_'");
+        }
+        Path file = baseDirectory.resolve(name);
+        if (!Files.isRegularFile(file)) {
+            throw new IllegalArgumentException("No import file " + file);
+        }
+        Path errorFile = file.resolveSibling(name + ERROR_FILE_SUFFIX);
+        ImportProgress started = new ImportProgress(file.toString(), errorFile.toString(), Files.size(file));
+        ImportProgress previous = progress.get();
+        if ((previous != null && previous.getState() == ImportProgress.State.RUNNING)
+                || !progress.compareAndSet(previous, started)) {
+            throw new IllegalStateException("An import is already running");
+        }
+        executor.execute(() -> importFile(file, errorFile, started));
+        return started;
+    }
+
+    public ImportProgress progress() {
+        return progress.get();
+    }
+
+    void importFile(Path file, Path errorFile, ImportProgress progress) {
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(parallelism, parallelism, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(parallelism), new ThreadPoolExecutor.CallerRunsPolicy());
+        try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ);
+             FileChannel errors = FileChannel.open(errorFile, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                     StandardOpenOption.TRUNCATE_EXISTING)) {
+            InputStream input = Channels.newInputStream(in);
+            if (file.getFileName().toString().endsWith(".gz")) {
+                input = new GZIPInputStream(input, bufferSize);
+            }
+            BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8), bufferSize);
+            CsvChannelWriter errorWriter = new CsvChannelWriter(errors, bufferSize);
+            errorWriter.writeRow("line", "error", "record");
+
+            String header = reader.readLine();
+            if (header == null) {
+                throw new IllegalArgumentException(file + " is empty");
+            }
+            Map<String, Integer> columns = columns(header);
+            logger.info("Importing customers from " + file);
+
+            List<Future<?>> chunks = new ArrayList<>();
+            List<Row> chunk = new ArrayList<>(chunkSize);
+            // lines read past a record that never closed, to be read again as records of their own
+            Deque<String> reread = new ArrayDeque<>();
+            long line = 1;
+            String text;
+            while ((text = readLine(reader, reread)) != null) {
+                long start = ++line;
+                if (CsvRecords.isOpen(text)) {
+                    StringBuilder record = new StringBuilder(text);
+                    List<String> following = new ArrayList<>();
+                    boolean open = true;
+                    String next;
+                    while (open && following.size() < maxRecordLines && (next = readLine(reader, reread)) != null) {
+                        following.add(next);
+                        record.append('\n').append(next);
+                        // each line's quotes flip the state, so no line is scanned twice
+                        open ^= CsvRecords.isOpen(next);
+                    }
+                    if (open) {
+                        // most likely a stray quote in an unquoted field, so only its line is rejected
+                        rejected(errorWriter, new Row(start, text), "Unterminated quoted field");
+                        progress.chunkDone(0, 1);
+                        for (int i = following.size() - 1; i >= 0; i--) {
+                            reread.push(following.get(i));
+                        }
+                        continue;
+                    }
+                    line += following.size();
+                    text = record.toString();
+                }
+                if (text.isBlank()) {
+                    continue;
+                }
+                if (chunk.size() >= chunkSize && !sameCustomer(chunk.get(chunk.size() - 1).text(), text, columns)) {
+                    progress.setBytesRead(in.position());
+                    chunks.add(submit(workers, chunk, columns, errorWriter, progress));
+                    chunk = new ArrayList<>(chunkSize);
+                }
+                chunk.add(new Row(start, text));
+            }
+            if (!chunk.isEmpty()) {
+                chunks.add(submit(workers, chunk, columns, errorWriter, progress));
+            }
+            for (Future<?> done : chunks) {
+                done.get();
+            }
+            errorWriter.flush();
+            progress.setBytesRead(in.position());
+            progress.finish(null);
+            logger.info("Import from " + file + " finished: " + progress.getImportedRows() + " rows imported, "
+                    + progress.getFailedRows() + " rows written to " + errorFile);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            progress.finish("Interrupted");
+        } catch (Exception e) {
+            logger.log(Level.SEVERE, "Import from " + file + " failed", e);
+            progress.finish(e.getMessage());
+        } finally {
+            workers.shutdownNow();
+        }
+    }
+
+    private Future<?> submit(ExecutorService workers, List<Row> chunk, Map<String, Integer> columns,
+                             CsvChannelWriter errorWriter, ImportProgress progress) {
+        return workers.submit(() -> {
+            importChunk(chunk, columns, errorWriter, progress);
+            return null;
+        });
+    }
+
+    private void importChunk(List<Row> chunk, Map<String, Integer> columns, CsvChannelWriter errorWriter,
+                             ImportProgress progress) throws IOException {
+        List<Customer> customers = new ArrayList<>(chunk.size());
+        // the rows each customer was read from, one per address
+        List<List<Row>> sources = new ArrayList<>(chunk.size());
+        List<Address> addresses = new ArrayList<>();
+        long failed = 0;
+
+        String accountNo = null;
+        Customer customer = null;
+        String error = null;
+        for (Row row : chunk) {
+            List<String> fields = CsvRecords.split(row.text());
+            String rowAccountNo = value(fields, columns, "account_no");
+            if (rowAccountNo == null || !rowAccountNo.equals(accountNo)) {
+                customer = null;
+                try {
+                    customer = toCustomer(fields, columns);
+                    customers.add(customer);
+                    sources.add(new ArrayList<>());
+                } catch (InvalidCustomerException e) {
+                    error = e.getMessage();
+                }
+            }
+            accountNo = rowAccountNo;
+            // the further rows of a rejected customer go with it
+            if (customer == null) {
+                failed++;
+                rejected(errorWriter, row, error);
+                continue;
+            }
+            sources.get(sources.size() - 1).add(row);
+            AddressDTO address = toAddress(fields, columns);
+            if (address != null) {
+                addresses.add(customerMapper.toAddress(address, customer));
+            }
+        }
+
+        for (BulkCustomerResult result : customerService.addCustomers(customers, addresses)) {
+            if (result.getStatus() == BulkCustomerResult.Status.FAILED) {
+                for (Row row : sources.get(result.getIndex())) {
+                    failed++;
+                    rejected(errorWriter, row, result.getMessage());
+                }
+            }
+        }
+        progress.chunkDone(chunk.size() - failed, failed);
+    }
+
+    private Customer toCustomer(List<String> fields, Map<String, Integer> columns) {
+        CustomerDTO customerDTO = CustomerDTO.builder()
+                .accountNo(parse(value(fields, columns, "account_no"), Long::valueOf, "account number"))
+                .fullName(FullNameDTO.builder()
+                        .firstName(value(fields, columns, "first_name"))
+                        .lastName(value(fields, columns, "last_name"))
+                        .middleName(value(fields, columns, "middle_name"))
+                        .build())
+                .email(value(fields, columns, "email"))
+                .password(password(value(fields, columns, "password")))
+                .phoneNumber(value(fields, columns, "phone_number"))
+                .accountType(accountType(value(fields, columns, "customer_type")))
+                .gender(parse(value(fields, columns, "gender"), Gender::valueOf, "gender"))
+                .build();
+
+        Set<ConstraintViolation<CustomerDTO>> violations = validator.validate(customerDTO);
+        if (!violations.isEmpty()) {
+            throw new InvalidCustomerException(violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+
+        Customer customer = customerMapper.toCustomer(customerDTO);
+        // the DTO has no fields for these, so they are set on the mapped entity
+        if (customer instanceof Individual individual) {
+            individual.setDateOfBirth(parse(value(fields, columns, "date_of_birth"), LocalDate::parse, "date of birth"));
+        } else if (customer instanceof Corporate corporate) {
+            corporate.setCompanyType(parse(value(fields, columns, "company_type"), CompanyType::valueOf, "company type"));
+        }
+        return customer;
+    }
+
+    private static AddressDTO toAddress(List<String> fields, Map<String, Integer> columns) {
+        if (ADDRESS_COLUMNS.stream().allMatch(column -> value(fields, columns, column) == null)) {
+            return null;
+        }
+        AddressDTO address = new AddressDTO();
+        address.setDoorNo(value(fields, columns, "door_no"));
+        address.setStreet(value(fields, columns, "street"));
+        address.setCity(value(fields, columns, "city"));
+        address.setState(value(fields, columns, "state"));
+        address.setZip(value(fields, columns, "zip"));
+        address.setCountry(value(fields, columns, "country"));
+        return address;
+    }
+
+    // the exporter writes no passwords, so these customers get a random one with a digit, a lower and an upper case letter
+    private static String password(String password) {
+        if (password != null) {
+            return password;
+        }
+        char[] generated = new char[PASSWORD_LENGTH];
+        generated[0] = PASSWORD_CHARACTERS.charAt(RANDOM.nextInt(24));
+        generated[1] = PASSWORD_CHARACTERS.charAt(24 + RANDOM.nextInt(25));
+        generated[2] = PASSWORD_CHARACTERS.charAt(49 + RANDOM.nextInt(8));
+        for (int i = 3; i < generated.length; i++) {
+            generated[i] = PASSWORD_CHARACTERS.charAt(RANDOM.nextInt(PASSWORD_CHARACTERS.length()));
+        }
+        return new String(generated);
+    }
+
+    private static boolean sameCustomer(String row, String next, Map<String, Integer> columns) {
+        String accountNo = value(CsvRecords.split(row), columns, "account_no");
+        return accountNo != null && accountNo.equals(value(CsvRecords.split(next), columns, "account_no"));
+    }
+
+    // "CUSTOMER" is what the exporter writes for customers that are neither individual nor corporate
+    private static CustomerDTO.AccountType accountType(String customerType) {
+        if (customerType == null || customerType.equals("CUSTOMER")) {
+            return null;
+        }
+        return parse(customerType, CustomerDTO.AccountType::valueOf, "customer type");
+    }
+
+    private static <T> T parse(String value, Function<String, T> parser, String description) {
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new InvalidCustomerException("Invalid " + description + " '" + value + "'");
+        }
+    }
+
+    private static String value(List<String> fields, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column);
+        if (index == null || index >= fields.size()) {
+            return null;
+        }
+        String value = fields.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Map<String, Integer> columns(String header) {
+        Map<String, Integer> columns = new HashMap<>();
+        List<String> names = CsvRecords.split(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i).trim().toLowerCase();
+            if (COLUMNS.contains(name)) {
+                columns.putIfAbsent(name, i);
+            }
+        }
+        List<String> missing = REQUIRED_COLUMNS.stream().filter(column -> !columns.containsKey(column)).toList();
+        if (!missing.isEmpty()) {
+            throw new IllegalArgumentException("The header has no column " + String.join(", ", missing));
+        }
+        return columns;
+    }
+
+    private static String readLine(BufferedReader reader, Deque<String> reread) throws IOException {
+        return reread.isEmpty() ? reader.readLine() : reread.pop();
+    }
+
+    // several workers report into the same file
+    private static void rejected(CsvChannelWriter errorWriter, Row row, String message) throws IOException {
+        synchronized (errorWriter) {
+            errorWriter.writeRow(row.line(), message, row.text());
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
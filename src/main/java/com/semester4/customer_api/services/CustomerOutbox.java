@@ -0,0 +1,39 @@
+package com.semester4.customer_api.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semester4.customer_api.models.OutboxEvent;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+/**
+ * Writes customer changes to the Customer_Outbox table. Must run inside the transaction making the change,
+ * so the event exists exactly when the change does; {@link OutboxRelay} publishes it from there.
+ */
+@Component
+public class CustomerOutbox {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(CustomerChangedEvent event) {
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change of customer " + event.accountNo(), e);
+        }
+        // persist rather than save, so bulk inserts batch the outbox rows with the customers
+        entityManager.persist(new OutboxEvent(null, event.accountNo(), event.changeVersion(), event.change().name(),
+                payload, Instant.now()));
+    }
+}
@@ -0,0 +1,49 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.models.Customer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.persister.entity.AbstractEntityPersister;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+
+/**
+ * Deletes customer rows by account number with one statement per table of the hierarchy, as mapped in the current
+ * storage layout, without loading them. An HQL delete would go through a temporary id table in the JOINED layout.
+ * Addresses referencing the customers have to be deleted first.
+ */
+@Component
+public class CustomerRowDeleter {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * @return the number of customers deleted
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int delete(Collection<Long> accountNos) {
+        AbstractEntityPersister persister = (AbstractEntityPersister) entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getMappingMetamodel()
+                .getEntityDescriptor(Customer.class);
+        String keyColumn = persister.getIdentifierColumnNames()[0];
+
+        int customers = 0;
+        // the root table comes first, and the subtype tables reference it, so delete in reverse
+        for (int i = persister.getSubclassTableSpan() - 1; i >= 0; i--) {
+            String table = persister.getSubclassTableName(i);
+            int deleted = entityManager.createNativeQuery("delete from " + table + " where " + keyColumn + " in (:accountNos)")
+                    .setParameter("accountNos", accountNos)
+                    .executeUpdate();
+            if (table.equals(persister.getTableName())) {
+                customers = deleted;
+            }
+        }
+        return customers;
+    }
+}
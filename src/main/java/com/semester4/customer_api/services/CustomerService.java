@@ -1,19 +1,43 @@
 package com.semester4.customer_api.services;
 
+import com.semester4.customer_api.dto.BulkCustomerResult;
+import com.semester4.customer_api.dto.BulkDeleteResult;
+import com.semester4.customer_api.dto.CursorPage;
+import com.semester4.customer_api.dto.CustomerChange;
+import com.semester4.customer_api.dto.CustomerPatch;
+import com.semester4.customer_api.dto.CustomerSearch;
+import com.semester4.customer_api.dto.CustomerSummary;
+import com.semester4.customer_api.dto.CustomerType;
 import com.semester4.customer_api.models.Address;
 import com.semester4.customer_api.models.Corporate;
 import com.semester4.customer_api.models.Customer;
 import com.semester4.customer_api.models.Individual;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface CustomerService {
     Customer addCustomer(Customer customer);
     Individual addIndividual(Individual individual);
     Corporate addCorporate(Corporate corporate);
     Address saveAddress(Address address);
+    Customer createCustomer(Customer customer, List<Address> addresses);
+    List<BulkCustomerResult> addCustomers(List<Customer> customers, List<Address> addresses);
     List<Customer> getCustomers();
+    CursorPage<Customer> getCustomers(Long after, int size);
+    CursorPage<?> getCustomerSummaries(CustomerType type, Long after, int size);
+    CustomerSummary findCustomerSummary(long accountNo);
+    CursorPage<CustomerSummary> searchCustomers(CustomerSearch search, Long after, int size);
+    void streamCustomers(Consumer<Customer> consumer);
+    CursorPage<CustomerChange> getChanges(long since, int size);
+    void streamChanges(long since, Consumer<CustomerChange> consumer);
     Customer updateCustomer(long AccountNo, String newEmail);
+    Customer updateCustomer(long accountNo, String newEmail, Long expectedVersion);
+    long patchCustomer(long accountNo, CustomerPatch patch, Long expectedVersion);
     boolean deleteCustomer(long AccountNo);
+    BulkDeleteResult deleteCustomers(Collection<Long> accountNos);
+    BulkDeleteResult deleteCustomers(long after, long upTo);
     Customer findCustomer(long accountNo);
+    Long findCustomerVersion(long accountNo);
 }
@@ -1,22 +1,75 @@
 package com.semester4.customer_api.services;
 
+import com.semester4.customer_api.configurations.CacheConfig;
+import com.semester4.customer_api.dto.AddressDTO;
+import com.semester4.customer_api.dto.BulkCustomerResult;
+import com.semester4.customer_api.dto.BulkDeleteResult;
+import com.semester4.customer_api.dto.CursorPage;
+import com.semester4.customer_api.dto.CustomerChange;
+import com.semester4.customer_api.dto.CustomerPatch;
+import com.semester4.customer_api.dto.CustomerSearch;
+import com.semester4.customer_api.dto.CustomerSummary;
+import com.semester4.customer_api.dto.CustomerType;
 import com.semester4.customer_api.exceptions.CustomerNotFoundException;
+import com.semester4.customer_api.exceptions.DuplicateCustomerException;
+import com.semester4.customer_api.exceptions.InvalidCustomerException;
 import com.semester4.customer_api.models.Address;
 import com.semester4.customer_api.models.Corporate;
 import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.CustomerTombstone;
+import com.semester4.customer_api.models.FullName;
 import com.semester4.customer_api.models.Individual;
 import com.semester4.customer_api.repositories.AddressRepository;
 import com.semester4.customer_api.repositories.CorporateRepository;
 import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.repositories.CustomerTombstoneRepository;
 import com.semester4.customer_api.repositories.IndividualRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
-import java.security.SecureRandom;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
 
 @Service
 public class CustomerServiceImpl implements CustomerService {
+    static final int MAX_PAGE_SIZE = 1000;
+    private static final Pattern LIKE_WILDCARDS = Pattern.compile("[\\\\%_]");
+
     @Autowired
     private CustomerRepository customerRepository;
     @Autowired
@@ -25,15 +78,42 @@ public class CustomerServiceImpl implements CustomerService {
     private IndividualRepository individualRepository;
     @Autowired
     private CorporateRepository corporateRepository;
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private AccountNoAllocator accountNoAllocator;
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    @Autowired
+    private CustomerEmailFilter customerEmailFilter;
+    @Autowired
+    private CustomerOutbox customerOutbox;
+    @Autowired
+    private CustomerTombstoneRepository customerTombstoneRepository;
+    @Autowired
+    private ChangeVersionAllocator changeVersionAllocator;
+    @Autowired
+    private CustomerRowDeleter customerRowDeleter;
+    @Autowired
+    private CustomerStorageMigrator customerStorageMigrator;
+
+    @Value("${customer.bulk.chunk-size:500}")
+    private int bulkChunkSize;
+
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#customer.accountNo")
     public Customer addCustomer(Customer customer) {
 
         // prevent overriding account number if provided mistakenly
         if (customer.getAccountNo() == null) {
             customer.setAccountNo(generateAccountNo());
         }
+        customer.setChangeVersion(changeVersionAllocator.next(1));
 
-        return customerRepository.save(customer);
+        return published(mirrored(customerRepository.save(customer)));
     }
 
 
@@ -43,46 +123,427 @@ public class CustomerServiceImpl implements CustomerService {
     }
 
     @Override
+    public CursorPage<Customer> getCustomers(Long after, int size) {
+        int pageSize = pageSize(size);
+        List<Customer> customers = customerRepository
+                .findByAccountNoGreaterThanOrderByAccountNoAsc(cursor(after), Limit.of(pageSize + 1));
+        return toPage(customers, pageSize, Customer::getAccountNo);
+    }
+
+    @Override
+    public CursorPage<?> getCustomerSummaries(CustomerType type, Long after, int size) {
+        int pageSize = pageSize(size);
+        Limit limit = Limit.of(pageSize + 1);
+        // only a requested subtype is joined; without one the base table is read on its own
+        if (type == null) {
+            return toPage(customerRepository.findSummaries(cursor(after), limit), pageSize, CustomerSummary::accountNo);
+        }
+        return switch (type) {
+            case INDIVIDUAL -> toPage(individualRepository.findSummaries(cursor(after), limit), pageSize, s -> s.accountNo());
+            case CORPORATE -> toPage(corporateRepository.findSummaries(cursor(after), limit), pageSize, s -> s.accountNo());
+        };
+    }
+
+    @Override
+    public CustomerSummary findCustomerSummary(long accountNo) {
+        return customerRepository.findSummary(accountNo).orElse(null);
+    }
+
+    @Override
+    public CursorPage<CustomerSummary> searchCustomers(CustomerSearch search, Long after, int size) {
+        int pageSize = pageSize(size);
+        return toPage(findSummaries(search, cursor(after), pageSize + 1), pageSize, CustomerSummary::accountNo);
+    }
+
+    private List<CustomerSummary> findSummaries(CustomerSearch search, long after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<CustomerSummary> query = cb.createQuery(CustomerSummary.class);
+        Root<Customer> customer = query.from(Customer.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(cb.gt(customer.get("accountNo"), after));
+        if (CustomerSearch.hasText(search.getName())) {
+            // every term starts one of the names; schema-postgresql.sql indexes lower(name) for these prefixes
+            Path<FullName> fullName = customer.get("fullName");
+            for (String term : search.getName().trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+                String prefix = LIKE_WILDCARDS.matcher(term).replaceAll("\\\\$0") + "%";
+                predicates.add(cb.or(
+                        cb.like(cb.lower(fullName.get("firstName")), prefix, '\\'),
+                        cb.like(cb.lower(fullName.get("middleName")), prefix, '\\'),
+                        cb.like(cb.lower(fullName.get("lastName")), prefix, '\\')));
+            }
+        }
+        if (CustomerSearch.hasText(search.getEmail())) {
+            predicates.add(cb.equal(customer.get("email"), search.getEmail().trim()));
+        }
+        if (search.hasAddressCriteria()) {
+            // exists rather than a join so a customer with several matching addresses is listed once
+            Subquery<Long> addresses = query.subquery(Long.class);
+            Root<Address> address = addresses.from(Address.class);
+            List<Predicate> addressPredicates = new ArrayList<>();
+            addressPredicates.add(cb.equal(address.get("customer"), customer));
+            addIfPresent(cb, addressPredicates, address.get("city"), search.getCity());
+            addIfPresent(cb, addressPredicates, address.get("state"), search.getState());
+            addIfPresent(cb, addressPredicates, address.get("zip"), search.getZip());
+            addIfPresent(cb, addressPredicates, address.get("country"), search.getCountry());
+            addresses.select(address.get("addressId")).where(addressPredicates.toArray(Predicate[]::new));
+            predicates.add(cb.exists(addresses));
+        }
+
+        query.select(cb.construct(CustomerSummary.class, customer.get("accountNo"), customer.get("fullName"),
+                        customer.get("email"), customer.get("phoneNumber")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(cb.asc(customer.get("accountNo")));
+        return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+    }
+
+    private static void addIfPresent(CriteriaBuilder cb, List<Predicate> predicates,
+                                     Path<String> column, String value) {
+        if (CustomerSearch.hasText(value)) {
+            predicates.add(cb.equal(column, value.trim()));
+        }
+    }
+
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+    }
+
+    private static long cursor(Long after) {
+        return after == null ? 0L : after;
+    }
+
+    // rows are read one past the page size to know whether another page exists
+    private static <T> CursorPage<T> toPage(List<T> rows, int pageSize, Function<T, Long> accountNo) {
+        if (rows.size() <= pageSize) {
+            return new CursorPage<>(rows, null);
+        }
+        List<T> page = rows.subList(0, pageSize);
+        return new CursorPage<>(page, accountNo.apply(page.get(pageSize - 1)));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamCustomers(Consumer<Customer> consumer) {
+        try (Stream<Customer> customers = customerRepository.streamAllByOrderByAccountNoAsc()) {
+            customers.forEach(customer -> {
+                consumer.accept(customer);
+                // keep the persistence context from growing with the table
+                entityManager.detach(customer);
+            });
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public CursorPage<CustomerChange> getChanges(long since, int size) {
+        int pageSize = pageSize(size);
+        long limit = changeVersionAllocator.committedLimit();
+        Iterator<CustomerChange> customers = customerRepository
+                .findByChangeVersionGreaterThanOrderByChangeVersionAsc(since, Limit.of(pageSize + 1)).stream()
+                .map(CustomerChange::of).iterator();
+        Iterator<CustomerChange> deletes = customerTombstoneRepository
+                .findByChangeVersionGreaterThanOrderByChangeVersionAsc(since, Limit.of(pageSize + 1)).stream()
+                .map(CustomerChange::of).iterator();
+
+        List<CustomerChange> changes = new ArrayList<>(pageSize + 1);
+        mergeChanges(customers, deletes, limit, pageSize + 1, changes::add);
+        return toPage(changes, pageSize, CustomerChange::version);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void streamChanges(long since, Consumer<CustomerChange> consumer) {
+        long limit = changeVersionAllocator.committedLimit();
+        try (Stream<Customer> customers = customerRepository.streamByChangeVersionGreaterThanOrderByChangeVersionAsc(since);
+             Stream<CustomerTombstone> deletes = customerTombstoneRepository.streamByChangeVersionGreaterThanOrderByChangeVersionAsc(since)) {
+            Iterator<CustomerChange> changed = customers.map(customer -> {
+                CustomerChange change = CustomerChange.of(customer);
+                // keep the persistence context from growing with the feed
+                entityManager.detach(customer);
+                return change;
+            }).iterator();
+            mergeChanges(changed, deletes.map(CustomerChange::of).iterator(), limit, Long.MAX_VALUE, consumer);
+        }
+    }
+
+    // both inputs are in version order; versions at or above the committed limit may still have gaps below them
+    private static void mergeChanges(Iterator<CustomerChange> customers, Iterator<CustomerChange> deletes,
+                                     long committedLimit, long maxChanges, Consumer<CustomerChange> consumer) {
+        CustomerChange customer = customers.hasNext() ? customers.next() : null;
+        CustomerChange delete = deletes.hasNext() ? deletes.next() : null;
+        for (long emitted = 0; emitted < maxChanges && (customer != null || delete != null); emitted++) {
+            CustomerChange next;
+            if (delete == null || (customer != null && customer.version() < delete.version())) {
+                next = customer;
+                customer = customers.hasNext() ? customers.next() : null;
+            } else {
+                next = delete;
+                delete = deletes.hasNext() ? deletes.next() : null;
+            }
+            if (next.version() >= committedLimit) {
+                return;
+            }
+            consumer.accept(next);
+        }
+    }
+
+    @Override
+    @Transactional
+    @Caching(put = @CachePut(cacheNames = CacheConfig.CUSTOMERS, key = "#accountNo", unless = "#result == null"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSIONS, key = "#accountNo"))
     public Customer updateCustomer(long accountNo, String newEmail){
-        Customer customer = findCustomer(accountNo);
+        return updateCustomer(accountNo, newEmail, null);
+    }
+
+    @Override
+    @Transactional
+    @Caching(put = @CachePut(cacheNames = CacheConfig.CUSTOMERS, key = "#accountNo", unless = "#result == null"),
+            evict = @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSIONS, key = "#accountNo"))
+    public Customer updateCustomer(long accountNo, String newEmail, Long expectedVersion){
+        // load rather than use the cached instance, which must not be changed before the write commits
+        Customer customer = customerRepository.findById(accountNo).orElse(null);
         if (customer!= null){
+            // a write committed in between is caught by the version check of the update itself
+            if (expectedVersion != null && !expectedVersion.equals(customer.getVersion())) {
+                throw new ObjectOptimisticLockingFailureException(Customer.class, accountNo);
+            }
+            String previousEmail = customer.getEmail();
+            if (!newEmail.equals(previousEmail) && customerEmailFilter.exists(newEmail)) {
+                throw new DuplicateCustomerException(duplicateEmailMessage(newEmail));
+            }
             customer.setEmail(newEmail);
-            return customerRepository.save(customer);
+            customer.setChangeVersion(changeVersionAllocator.next(1));
+            Customer saved = customerRepository.save(customer);
+            publish(CustomerChangedEvent.updated(saved, previousEmail));
+            return saved;
         }else {
             return null;
         }
     }
     @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#accountNo"),
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSIONS, key = "#accountNo")
+    })
+    public long patchCustomer(long accountNo, CustomerPatch patch, Long expectedVersion) {
+        CustomerPatch.Name name = patch.getFullName();
+        boolean nameChanged = name != null
+                && (name.getFirstName() != null || name.getLastName() != null || name.getMiddleName() != null);
+
+        // the email filter and the change event need the previous values, so only those changes read the row first
+        CustomerSummary previous = null;
+        if (patch.getEmail() != null || nameChanged) {
+            previous = customerRepository.findSummary(accountNo).orElseThrow(() -> notFound(accountNo));
+            if (patch.getEmail() != null && !patch.getEmail().equals(previous.email())
+                    && customerEmailFilter.exists(patch.getEmail())) {
+                throw new DuplicateCustomerException(duplicateEmailMessage(patch.getEmail()));
+            }
+        }
+
+        CustomerColumnUpdate update = new CustomerColumnUpdate(entityManager, Customer.class)
+                .set("email", patch.getEmail())
+                .set("password", patch.getPassword())
+                .set("phoneNumber", patch.getPhoneNumber() == null ? null : Long.valueOf(patch.getPhoneNumber()));
+        if (patch.removes("phoneNumber")) {
+            update.setNull("phoneNumber");
+        }
+        if (nameChanged) {
+            update.set("fullName.firstName", name.getFirstName())
+                    .set("fullName.lastName", name.getLastName())
+                    .set("fullName.middleName", name.getMiddleName());
+        }
+        // the change versions of one customer must follow the order its writes commit in, the order the outbox
+        // relay publishes them in. A write committed in between fails an update that expects a version, so that
+        // update can carry the change version; otherwise it is taken once the update holds the row lock.
+        Long changeVersion = expectedVersion != null ? changeVersionAllocator.next(1) : null;
+        // every patch moves the version, including one that only touches the subtype or address rows
+        update.set("changeVersion", changeVersion).incrementVersion();
+        if (update.execute(entityManager, accountNo, expectedVersion) == 0) {
+            if (customerRepository.findVersion(accountNo).isEmpty()) {
+                throw notFound(accountNo);
+            }
+            throw new ObjectOptimisticLockingFailureException(Customer.class, accountNo);
+        }
+        if (changeVersion == null) {
+            changeVersion = changeVersionAllocator.next(1);
+            new CustomerColumnUpdate(entityManager, Customer.class)
+                    .set("changeVersion", changeVersion)
+                    .execute(entityManager, accountNo, null);
+        }
+
+        CustomerColumnUpdate individual = new CustomerColumnUpdate(entityManager, Individual.class)
+                .set("gender", patch.getGender())
+                .set("dateOfBirth", patch.getDateOfBirth());
+        for (String property : List.of("gender", "dateOfBirth")) {
+            if (patch.removes(property)) {
+                individual.setNull(property);
+            }
+        }
+        if (!individual.isEmpty() && individual.execute(entityManager, accountNo, null) == 0) {
+            throw new InvalidCustomerException("Customer " + accountNo + " is not an individual");
+        }
+        CustomerColumnUpdate corporate = new CustomerColumnUpdate(entityManager, Corporate.class)
+                .set("companyType", patch.getCompanyType());
+        if (patch.removes("companyType")) {
+            corporate.setNull("companyType");
+        }
+        if (!corporate.isEmpty() && corporate.execute(entityManager, accountNo, null) == 0) {
+            throw new InvalidCustomerException("Customer " + accountNo + " is not a corporate");
+        }
+        if (!individual.isEmpty() || !corporate.isEmpty()) {
+            customerStorageMigrator.mirror(List.of(accountNo));
+        }
+        if (patch.getAddresses() != null) {
+            for (AddressDTO address : patch.getAddresses()) {
+                patchAddress(accountNo, address);
+            }
+        }
+
+        FullName fullName = nameChanged ? FullName.builder()
+                .firstName(Objects.requireNonNullElse(name.getFirstName(), previous.fullName().getFirstName()))
+                .lastName(Objects.requireNonNullElse(name.getLastName(), previous.fullName().getLastName()))
+                .middleName(Objects.requireNonNullElse(name.getMiddleName(), previous.fullName().getMiddleName()))
+                .build() : null;
+        publish(CustomerChangedEvent.patched(accountNo, changeVersion, fullName, patch.getEmail(),
+                previous == null ? null : previous.email()));
+
+        return expectedVersion != null ? expectedVersion + 1 : customerRepository.findVersion(accountNo).orElseThrow();
+    }
+
+    private void patchAddress(long accountNo, AddressDTO patch) {
+        if (patch.getAddressId() == null) {
+            throw new InvalidCustomerException("Addresses to update need their addressId");
+        }
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Address> update = cb.createCriteriaUpdate(Address.class);
+        Root<Address> address = update.from(Address.class);
+        boolean changed = setIfPresent(update, address.get("doorNo"), patch.getDoorNo())
+                | setIfPresent(update, address.get("street"), patch.getStreet())
+                | setIfPresent(update, address.get("city"), patch.getCity())
+                | setIfPresent(update, address.get("state"), patch.getState())
+                | setIfPresent(update, address.get("zip"), patch.getZip())
+                | setIfPresent(update, address.get("country"), patch.getCountry());
+        if (!changed) {
+            return;
+        }
+        update.where(cb.equal(address.get("addressId"), patch.getAddressId()),
+                cb.equal(address.get("customer").get("accountNo"), accountNo));
+        if (entityManager.createQuery(update).executeUpdate() == 0) {
+            throw new InvalidCustomerException("Customer " + accountNo + " has no address " + patch.getAddressId());
+        }
+    }
+
+    private static <T> boolean setIfPresent(CriteriaUpdate<?> update, Path<T> path, T value) {
+        if (value == null) {
+            return false;
+        }
+        update.set(path, value);
+        return true;
+    }
+
+    @Override
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#accountNo"),
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSIONS, key = "#accountNo")
+    })
     public boolean deleteCustomer(long accountNo){
-        boolean status = false;
-        Customer customer = findCustomer(accountNo);
-        if (customer!= null){
-            customerRepository.delete(customer);
-            status = true;
+        return deleteChunk(customerRepository.findSummaries(List.of(accountNo))).customers() > 0;
+    }
+
+    @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSIONS, allEntries = true)
+    })
+    public BulkDeleteResult deleteCustomers(Collection<Long> accountNos) {
+        List<Long> distinct = accountNos.stream().distinct().toList();
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        BulkDeleteResult result = BulkDeleteResult.NONE;
+        for (int from = 0; from < distinct.size(); from += bulkChunkSize) {
+            List<Long> chunk = distinct.subList(from, Math.min(from + bulkChunkSize, distinct.size()));
+            result = result.plus(transaction.execute(status -> deleteChunk(customerRepository.findSummaries(chunk))));
         }
-        return status;
+        return result;
     }
 
     @Override
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, allEntries = true),
+            @CacheEvict(cacheNames = CacheConfig.CUSTOMER_VERSIONS, allEntries = true)
+    })
+    public BulkDeleteResult deleteCustomers(long after, long upTo) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        BulkDeleteResult result = BulkDeleteResult.NONE;
+        while (true) {
+            // deleted rows drop out of the range, so every chunk starts from the beginning again
+            BulkDeleteResult chunk = transaction.execute(status -> {
+                List<CustomerSummary> customers = customerRepository.findSummaries(after, upTo, Limit.of(bulkChunkSize));
+                return customers.isEmpty() ? null : deleteChunk(customers);
+            });
+            if (chunk == null) {
+                return result;
+            }
+            result = result.plus(chunk);
+        }
+    }
+
+    // the summaries carry the emails the deletion events need, read without the subtype joins
+    private BulkDeleteResult deleteChunk(List<CustomerSummary> customers) {
+        if (customers.isEmpty()) {
+            return BulkDeleteResult.NONE;
+        }
+        List<Long> accountNos = customers.stream().map(CustomerSummary::accountNo).toList();
+        int addresses = addressRepository.deleteByAccountNos(accountNos);
+        int deleted = customerRowDeleter.delete(accountNos);
+
+        // one sequence update for the whole chunk, taken once the deletes hold the row locks
+        long version = changeVersionAllocator.next(customers.size());
+        Instant deletedAt = Instant.now();
+        for (CustomerSummary customer : customers) {
+            long changeVersion = version++;
+            entityManager.persist(new CustomerTombstone(changeVersion, customer.accountNo(), deletedAt));
+            publish(CustomerChangedEvent.deleted(customer.accountNo(), changeVersion, customer.email()));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        return new BulkDeleteResult(deleted, addresses);
+    }
+
+    @Override
+    @Cacheable(cacheNames = CacheConfig.CUSTOMERS, key = "#accountNo")
     public Customer findCustomer(long accountNo){
         return customerRepository.findById(accountNo).orElseThrow(()->
                 new CustomerNotFoundException("Customer with account number"+ accountNo+ "not found"));
     }
 
     @Override
+    @Cacheable(cacheNames = CacheConfig.CUSTOMER_VERSIONS, key = "#accountNo", unless = "#result == null")
+    public Long findCustomerVersion(long accountNo) {
+        return customerRepository.findVersion(accountNo).orElse(null);
+    }
+
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#individual.accountNo")
     public Individual addIndividual(Individual individual) {
         if (individual.getAccountNo() == null) {
             individual.setAccountNo(generateAccountNo());
         }
-        return individualRepository.save(individual);
+        individual.setChangeVersion(changeVersionAllocator.next(1));
+        return published(mirrored(individualRepository.save(individual)));
     }
 
     @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#corporate.accountNo")
     public Corporate addCorporate(Corporate corporate) {
         if (corporate.getAccountNo() == null) {
             corporate.setAccountNo(generateAccountNo());
         }
-        return corporateRepository.save(corporate);
+        corporate.setChangeVersion(changeVersionAllocator.next(1));
+        return published(mirrored(corporateRepository.save(corporate)));
     }
 
     @Override
@@ -90,11 +551,128 @@ public class CustomerServiceImpl implements CustomerService {
         return addressRepository.save(address);
     }
 
+    @Override
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CUSTOMERS, key = "#customer.accountNo")
+    public Customer createCustomer(Customer customer, List<Address> addresses) {
+        // fail before allocating an account number or opening any insert
+        if (customerEmailFilter.exists(customer.getEmail())) {
+            throw new DuplicateCustomerException(duplicateEmailMessage(customer.getEmail()));
+        }
+        if (customer.getAccountNo() == null) {
+            customer.setAccountNo(generateAccountNo());
+        }
+        customer.setChangeVersion(changeVersionAllocator.next(1));
+        // persist, not merge: the customer is new and its addresses point at the managed instance
+        Customer saved = customerRepository.save(customer);
+        addressRepository.saveAll(addresses);
+        // flush here so constraint violations surface as DataIntegrityViolationException from this call
+        customerRepository.flush();
+        return published(mirrored(saved));
+    }
+
+    @Override
+    public List<BulkCustomerResult> addCustomers(List<Customer> customers, List<Address> addresses) {
+        Map<Customer, List<Address>> addressesByCustomer = new IdentityHashMap<>();
+        for (Address address : addresses) {
+            addressesByCustomer.computeIfAbsent(address.getCustomer(), c -> new ArrayList<>()).add(address);
+        }
+
+        BulkCustomerResult[] results = new BulkCustomerResult[customers.size()];
+
+        // reject known and repeated emails up front instead of failing whole chunks on the unique constraint
+        List<Integer> accepted = new ArrayList<>(customers.size());
+        Set<String> batchEmails = new HashSet<>();
+        for (int i = 0; i < customers.size(); i++) {
+            Customer customer = customers.get(i);
+            if (!batchEmails.add(customer.getEmail()) || customerEmailFilter.exists(customer.getEmail())) {
+                results[i] = BulkCustomerResult.failed(i, customer.getAccountNo(), duplicateEmailMessage(customer.getEmail()));
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        // numbers are taken before a chunk transaction holds a connection, and kept by the rows retried singly
+        for (int position : accepted) {
+            Customer customer = customers.get(position);
+            if (customer.getAccountNo() == null) {
+                customer.setAccountNo(generateAccountNo());
+            }
+        }
+
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        for (int from = 0; from < accepted.size(); from += bulkChunkSize) {
+            List<Integer> positions = accepted.subList(from, Math.min(from + bulkChunkSize, accepted.size()));
+            List<Customer> chunk = positions.stream().map(customers::get).toList();
+            try {
+                transaction.executeWithoutResult(status -> persistChunk(chunk, addressesByCustomer));
+                for (int position : positions) {
+                    results[position] = BulkCustomerResult.created(position, customers.get(position).getAccountNo());
+                }
+            } catch (RuntimeException chunkFailure) {
+                // one bad row rolls back its whole chunk, so retry the chunk row by row to isolate it
+                for (int position : positions) {
+                    Customer customer = customers.get(position);
+                    try {
+                        transaction.executeWithoutResult(status -> persistChunk(List.of(customer), addressesByCustomer));
+                        results[position] = BulkCustomerResult.created(position, customer.getAccountNo());
+                    } catch (RuntimeException e) {
+                        results[position] = BulkCustomerResult.failed(position, customer.getAccountNo(),
+                                NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+                    }
+                }
+            }
+        }
+        return Arrays.asList(results);
+    }
+
+    private void persistChunk(List<Customer> chunk, Map<Customer, List<Address>> addressesByCustomer) {
+        // one sequence update for the whole chunk
+        long version = changeVersionAllocator.next(chunk.size());
+        for (Customer customer : chunk) {
+            customer.setChangeVersion(version++);
+            // a rolled back attempt may have left a version and generated ids behind
+            customer.resetPersistState();
+            entityManager.persist(customer);
+            published(customer);
+            for (Address address : addressesByCustomer.getOrDefault(customer, List.of())) {
+                address.setAddressId(null);
+                entityManager.persist(address);
+            }
+        }
+        // send the chunk as JDBC batches and drop it from the persistence context
+        entityManager.flush();
+        customerStorageMigrator.mirror(chunk.stream().map(Customer::getAccountNo).toList());
+        entityManager.clear();
+    }
+
+    // while the storage layout is being switched, the other layout's copy is written too
+    private <T extends Customer> T mirrored(T customer) {
+        customerStorageMigrator.mirror(List.of(customer.getAccountNo()));
+        return customer;
+    }
+
+    private <T extends Customer> T published(T customer) {
+        publish(CustomerChangedEvent.created(customer));
+        return customer;
+    }
+
+    // the outbox row joins the caller's transaction; in-process listeners only run once it commits
+    private void publish(CustomerChangedEvent event) {
+        customerOutbox.record(event);
+        eventPublisher.publishEvent(event);
+    }
+
+    private static CustomerNotFoundException notFound(long accountNo) {
+        return new CustomerNotFoundException("Customer with account number " + accountNo + " not found");
+    }
+
+    private static String duplicateEmailMessage(String email) {
+        return "Customer with email " + email + " already exists";
+    }
+
     private long generateAccountNo() {
-        long min = 1_000_000_000L;  // 10-digit minimum
-        long max = 9_999_999_999L;  // 10-digit maximum
-        SecureRandom random = new SecureRandom();
-        return min + (long) (random.nextDouble() * (max - min));
+        return accountNoAllocator.next();
     }
 
 
@@ -0,0 +1,290 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.MigrationProgress;
+import com.semester4.customer_api.models.StorageLayout;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Copies customer rows between the JOINED and SINGLE_TABLE storage layouts while the application keeps serving.
+ * <p>
+ * Both layouts share the Customer table and its Customer_Type discriminator, so a migration only has to copy the
+ * subtype columns: into the Customer table for SINGLE_TABLE, into the Individual and Corporate tables for JOINED.
+ * Rows are walked in account number order, one short transaction per chunk that locks the chunk's Customer rows,
+ * and only rows whose copy differs are written, so running it again is cheap.
+ * <p>
+ * With {@code dual-write} on, every write of the subtype columns is copied into the layout this instance does not
+ * serve in the same transaction, and rows deleted from Customer take their Individual and Corporate rows with them,
+ * so both copies stay current whichever layout an instance serves. To switch without stopping writes: turn
+ * dual-write on everywhere, run the migration into the other layout, roll the instances over to it one at a time,
+ * turn dual-write off, and contract to drop the copy nothing reads any more. Copies always go from the layout this
+ * instance serves, so a migration into the serving layout is refused.
+ */
+@Component
+public class CustomerStorageMigrator implements SmartInitializingSingleton {
+
+    private static final Logger logger = Logger.getLogger(CustomerStorageMigrator.class.getName());
+    private static final int PROGRESS_LOG_INTERVAL = 10;
+
+    // expand step: make the columns and tables of both layouts exist, whichever one the schema was created for
+    private static final List<String> EXPAND_DDL = List.of(
+            "alter table Customer add column if not exists Customer_Type varchar(31)",
+            "alter table Customer add column if not exists Gender varchar(255)",
+            "alter table Customer add column if not exists DOB date",
+            "alter table Customer add column if not exists Company_Type varchar(255)",
+            "create table if not exists Individual (Account_No bigint not null primary key, Gender varchar(255), DOB date, "
+                    + "constraint Individual_Customer_Fk foreign key (Account_No) references Customer on delete cascade)",
+            "create table if not exists Corporate (Account_No bigint not null primary key, Company_Type varchar(255), "
+                    + "constraint Corporate_Customer_Fk foreign key (Account_No) references Customer on delete cascade)");
+
+    // the single table layout deletes from Customer alone, so the subtype rows have to go with it
+    private static final String PLAIN_SUBTYPE_FOREIGN_KEYS = "select lower(tc.table_name), tc.constraint_name "
+            + "from information_schema.table_constraints tc join information_schema.referential_constraints rc "
+            + "on rc.constraint_schema = tc.constraint_schema and rc.constraint_name = tc.constraint_name "
+            + "where lower(tc.table_name) in ('individual', 'corporate') and tc.constraint_type = 'FOREIGN KEY' "
+            + "and rc.delete_rule <> 'CASCADE'";
+
+    // contract step: drop the copy of the layout not served any more
+    private static final List<String> CONTRACT_JOINED = List.of(
+            "drop table if exists Individual",
+            "drop table if exists Corporate");
+    private static final List<String> CONTRACT_SINGLE_TABLE = List.of(
+            "alter table Customer drop column if exists Gender",
+            "alter table Customer drop column if exists DOB",
+            "alter table Customer drop column if exists Company_Type");
+
+    private static final List<String> TO_SINGLE_TABLE = List.of(
+            "update Customer c set Customer_Type = 'INDIVIDUAL', "
+                    + "Gender = (select i.Gender from Individual i where i.Account_No = c.Account_No), "
+                    + "DOB = (select i.DOB from Individual i where i.Account_No = c.Account_No) "
+                    + "where c.Account_No in (:accountNos) "
+                    + "and exists (select 1 from Individual i where i.Account_No = c.Account_No "
+                    + "and (c.Customer_Type is distinct from 'INDIVIDUAL' or c.Gender is distinct from i.Gender "
+                    + "or c.DOB is distinct from i.DOB))",
+            "update Customer c set Customer_Type = 'CORPORATE', "
+                    + "Company_Type = (select k.Company_Type from Corporate k where k.Account_No = c.Account_No) "
+                    + "where c.Account_No in (:accountNos) "
+                    + "and exists (select 1 from Corporate k where k.Account_No = c.Account_No "
+                    + "and (c.Customer_Type is distinct from 'CORPORATE' or c.Company_Type is distinct from k.Company_Type))",
+            "update Customer c set Customer_Type = 'CUSTOMER' "
+                    + "where c.Account_No in (:accountNos) and c.Customer_Type is null");
+
+    // rows written since an earlier run are brought up to date as well as inserted
+    private static final List<String> TO_JOINED = List.of(
+            "update Individual i set "
+                    + "Gender = (select c.Gender from Customer c where c.Account_No = i.Account_No), "
+                    + "DOB = (select c.DOB from Customer c where c.Account_No = i.Account_No) "
+                    + "where i.Account_No in (:accountNos) "
+                    + "and exists (select 1 from Customer c where c.Account_No = i.Account_No "
+                    + "and c.Customer_Type = 'INDIVIDUAL' and (c.Gender is distinct from i.Gender "
+                    + "or c.DOB is distinct from i.DOB))",
+            "update Corporate k set "
+                    + "Company_Type = (select c.Company_Type from Customer c where c.Account_No = k.Account_No) "
+                    + "where k.Account_No in (:accountNos) "
+                    + "and exists (select 1 from Customer c where c.Account_No = k.Account_No "
+                    + "and c.Customer_Type = 'CORPORATE' and c.Company_Type is distinct from k.Company_Type)",
+            "insert into Individual (Account_No, Gender, DOB) "
+                    + "select c.Account_No, c.Gender, c.DOB from Customer c "
+                    + "where c.Account_No in (:accountNos) and c.Customer_Type = 'INDIVIDUAL' "
+                    + "and not exists (select 1 from Individual i where i.Account_No = c.Account_No)",
+            "insert into Corporate (Account_No, Company_Type) "
+                    + "select c.Account_No, c.Company_Type from Customer c "
+                    + "where c.Account_No in (:accountNos) and c.Customer_Type = 'CORPORATE' "
+                    + "and not exists (select 1 from Corporate k where k.Account_No = c.Account_No)");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // the single-table profile maps the entities through orm-single-table.xml
+    @Value("${spring.jpa.mapping-resources:}")
+    private String mappingResources;
+
+    @Value("${customer.storage.migration.chunk-size:1000}")
+    private int chunkSize;
+
+    // pause between chunks so a migration does not crowd out live traffic
+    @Value("${customer.storage.migration.pause:0ms}")
+    private Duration pause;
+
+    @Value("${customer.storage.dual-write:false}")
+    private boolean dualWrite;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-storage-migration");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final AtomicReference<MigrationProgress> progress = new AtomicReference<>();
+
+    private record Chunk(int scanned, int copied, long lastAccountNo) {
+    }
+
+    /**
+     * Starts copying rows into the target layout in the background.
+     *
+     * @return the progress of the started migration
+     * @throws IllegalStateException if a migration is already running, or the target is the layout being served
+     */
+    public MigrationProgress start(StorageLayout target) {
+        if (target == servingLayout()) {
+            throw new IllegalStateException("This instance serves the " + target + " layout, its rows are current");
+        }
+        MigrationProgress started = new MigrationProgress(target);
+        MigrationProgress previous = progress.get();
+        if ((previous != null && previous.getState() == MigrationProgress.State.RUNNING)
+                || !progress.compareAndSet(previous, started)) {
+            throw new IllegalStateException("A storage migration is already running");
+        }
+        executor.execute(() -> migrate(started));
+        return started;
+    }
+
+    /**
+     * Drops the copy of the subtype columns kept for the layout this instance does not serve: the Individual and
+     * Corporate tables, or the subtype columns of the Customer table. Only once no instance serves that layout.
+     *
+     * @throws IllegalStateException while this instance writes both layouts or a migration is running
+     */
+    public void contract() {
+        if (dualWrite) {
+            throw new IllegalStateException("Writes still go to both layouts");
+        }
+        MigrationProgress running = progress.get();
+        if (running != null && running.getState() == MigrationProgress.State.RUNNING) {
+            throw new IllegalStateException("A storage migration is running");
+        }
+        List<String> ddl = servingLayout() == StorageLayout.SINGLE_TABLE ? CONTRACT_JOINED : CONTRACT_SINGLE_TABLE;
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                ddl.forEach(statement -> entityManager.createNativeQuery(statement).executeUpdate()));
+        logger.info("Dropped the subtype columns of the layout other than " + servingLayout());
+    }
+
+    /**
+     * With dual-write on, copies the subtype columns of these customers into the layout this instance does not
+     * serve, as part of the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void mirror(Collection<Long> accountNos) {
+        if (!dualWrite || accountNos.isEmpty()) {
+            return;
+        }
+        // the copies read what the caller wrote
+        entityManager.flush();
+        List<String> statements = servingLayout() == StorageLayout.SINGLE_TABLE ? TO_JOINED : TO_SINGLE_TABLE;
+        for (String sql : statements) {
+            entityManager.createNativeQuery(sql).setParameter("accountNos", accountNos).executeUpdate();
+        }
+    }
+
+    // writes can only be mirrored once the other layout's tables and columns exist
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (dualWrite) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> expand());
+        }
+    }
+
+    StorageLayout servingLayout() {
+        return mappingResources.contains("orm-single-table") ? StorageLayout.SINGLE_TABLE : StorageLayout.JOINED;
+    }
+
+    public MigrationProgress progress() {
+        return progress.get();
+    }
+
+    void migrate(MigrationProgress migration) {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        List<String> statements = migration.getTarget() == StorageLayout.SINGLE_TABLE ? TO_SINGLE_TABLE : TO_JOINED;
+        try {
+            transaction.executeWithoutResult(status -> expand());
+            Number total = transaction.execute(status ->
+                    (Number) entityManager.createNativeQuery("select count(*) from Customer").getSingleResult());
+            migration.setTotalRows(total.longValue());
+            logger.info("Migrating " + total + " customers to the " + migration.getTarget() + " layout");
+
+            long from = 0L;
+            while (true) {
+                long chunkStart = from;
+                // the locks keep a concurrent dual write from being overwritten with what this chunk read before it
+                Chunk chunk = transaction.execute(status -> {
+                    List<?> rows = entityManager
+                            .createNativeQuery("select c.Account_No from Customer c where c.Account_No > :from "
+                                    + "order by c.Account_No limit :limit for update")
+                            .setParameter("from", chunkStart)
+                            .setParameter("limit", chunkSize)
+                            .getResultList();
+                    if (rows.isEmpty()) {
+                        return null;
+                    }
+                    List<Long> accountNos = rows.stream().map(row -> ((Number) row).longValue()).toList();
+                    int copied = statements.stream()
+                            .mapToInt(sql -> entityManager.createNativeQuery(sql)
+                                    .setParameter("accountNos", accountNos)
+                                    .executeUpdate())
+                            .sum();
+                    return new Chunk(accountNos.size(), copied, accountNos.get(accountNos.size() - 1));
+                });
+                if (chunk == null) {
+                    break;
+                }
+                long to = chunk.lastAccountNo();
+                migration.chunkDone(chunk.scanned(), chunk.copied(), to);
+                if (migration.getChunks() % PROGRESS_LOG_INTERVAL == 0) {
+                    logger.info(String.format("Storage migration to %s at account %d: %.1f%% scanned",
+                            migration.getTarget(), to, migration.getPercentComplete()));
+                }
+                from = to;
+
+                if (!pause.isZero()) {
+                    Thread.sleep(pause);
+                }
+            }
+            migration.finish(null);
+            logger.info("Storage migration to " + migration.getTarget() + " finished: " + migration.getScannedRows()
+                    + " rows scanned, " + migration.getCopiedRows() + " rows copied");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            migration.finish("Interrupted");
+        } catch (RuntimeException e) {
+            logger.log(Level.SEVERE, "Storage migration to " + migration.getTarget() + " failed", e);
+            migration.finish(e.getMessage());
+        }
+    }
+
+    private void expand() {
+        EXPAND_DDL.forEach(ddl -> entityManager.createNativeQuery(ddl).executeUpdate());
+        List<?> foreignKeys = entityManager.createNativeQuery(PLAIN_SUBTYPE_FOREIGN_KEYS).getResultList();
+        for (Object row : foreignKeys) {
+            Object[] foreignKey = (Object[]) row;
+            String table = (String) foreignKey[0];
+            entityManager.createNativeQuery("alter table " + table + " drop constraint " + foreignKey[1]).executeUpdate();
+            entityManager.createNativeQuery("alter table " + table + " add constraint " + table + "_Customer_Fk "
+                    + "foreign key (Account_No) references Customer on delete cascade").executeUpdate();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,18 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.models.OutboxEvent;
+
+import java.util.List;
+import java.util.logging.Logger;
+
+public class LoggingOutboxSink implements OutboxSink {
+
+    private static final Logger logger = Logger.getLogger(LoggingOutboxSink.class.getName());
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            logger.info("Customer event " + event.getId() + ": " + event.getPayload());
+        }
+    }
+}
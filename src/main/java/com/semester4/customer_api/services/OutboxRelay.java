@@ -0,0 +1,156 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.models.OutboxEvent;
+import com.semester4.customer_api.repositories.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Drains the customer outbox into the {@link OutboxSink} in batches.
+ * <p>
+ * Each batch is read, published and deleted in one transaction, so a sink failure leaves it in place.
+ * Full batches are drained back to back; otherwise the relay waits for the poll interval. A failing sink is
+ * retried with exponential backoff rather than at full speed, and the outbox absorbs the backlog meanwhile.
+ * Lag is published as customer.outbox.lag (change to publication) and customer.outbox.oldest.age.
+ */
+@Component
+public class OutboxRelay {
+
+    private static final Logger logger = Logger.getLogger(OutboxRelay.class.getName());
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+    @Autowired
+    private OutboxSink outboxSink;
+
+    @Value("${customer.outbox.relay.enabled:true}")
+    private boolean enabled;
+    @Value("${customer.outbox.batch-size:500}")
+    private int batchSize;
+    @Value("${customer.outbox.poll-interval:1s}")
+    private Duration pollInterval;
+    @Value("${customer.outbox.max-backoff:1m}")
+    private Duration maxBackoff;
+
+    private final Timer lagTimer;
+    private final Counter publishedCounter;
+    private final Counter failureCounter;
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "customer-outbox-relay");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private int consecutiveFailures;
+    private long retryAt = System.nanoTime();
+
+    public OutboxRelay(MeterRegistry meterRegistry) {
+        this.lagTimer = Timer.builder("customer.outbox.lag")
+                .description("Time from a customer change to its publication")
+                .register(meterRegistry);
+        this.publishedCounter = Counter.builder("customer.outbox.published")
+                .description("Customer change events handed to the outbox sink")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("customer.outbox.failures")
+                .description("Outbox batches the sink failed to take")
+                .register(meterRegistry);
+        Gauge.builder("customer.outbox.backlog", this, relay -> relay.outboxEventRepository.count())
+                .description("Customer change events waiting to be published")
+                .register(meterRegistry);
+        Gauge.builder("customer.outbox.oldest.age", this, OutboxRelay::oldestAgeSeconds)
+                .description("Age of the oldest unpublished customer change")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (enabled) {
+            executor.scheduleWithFixedDelay(this::drain, pollInterval.toMillis(), pollInterval.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    void drain() {
+        if (System.nanoTime() - retryAt < 0) {
+            return;
+        }
+        try {
+            while (relayBatch() == batchSize && !Thread.currentThread().isInterrupted()) {
+                // a full batch means more is waiting
+            }
+            consecutiveFailures = 0;
+        } catch (RuntimeException e) {
+            consecutiveFailures++;
+            failureCounter.increment();
+            Duration backoff = backoff(consecutiveFailures);
+            retryAt = System.nanoTime() + backoff.toNanos();
+            logger.log(Level.WARNING, "Publishing customer events failed, retrying in " + backoff, e);
+        }
+    }
+
+    int relayBatch() {
+        Integer published = new TransactionTemplate(transactionManager).execute(status -> {
+            List<OutboxEvent> batch = outboxEventRepository.findByOrderByChangeVersionAsc(Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            // per account the change version order is the order the changes committed in
+            List<OutboxEvent> ordered = batch.stream()
+                    .sorted(Comparator.comparing(OutboxEvent::getAccountNo).thenComparing(OutboxEvent::getChangeVersion))
+                    .toList();
+            try {
+                outboxSink.publish(ordered);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            outboxEventRepository.deleteAllInBatch(batch);
+
+            Instant now = Instant.now();
+            for (OutboxEvent event : batch) {
+                lagTimer.record(Duration.between(event.getCreatedAt(), now));
+            }
+            publishedCounter.increment(batch.size());
+            return batch.size();
+        });
+        return published == null ? 0 : published;
+    }
+
+    Duration backoff(int failures) {
+        long millis = pollInterval.toMillis() << Math.min(failures, 20);
+        return Duration.ofMillis(Math.min(millis, maxBackoff.toMillis()));
+    }
+
+    private double oldestAgeSeconds() {
+        Instant oldest = outboxEventRepository.findOldestCreatedAt();
+        return oldest == null ? 0.0 : Duration.between(oldest, Instant.now()).toMillis() / 1000.0;
+    }
+}
@@ -0,0 +1,15 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.models.OutboxEvent;
+
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * Destination of relayed customer change events. A batch is handed over ordered by account number and,
+ * per account, in the order the changes were made. Throwing leaves the whole batch in the outbox to be retried,
+ * so a sink may see a batch more than once.
+ */
+public interface OutboxSink {
+    void publish(List<OutboxEvent> events) throws IOException;
+}
@@ -0,0 +1,104 @@
+package com.semester4.customer_api.services;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * A few connections of their own for the short transactions that take ranges from the Sequence_Block table and
+ * record change version leases, taken from the application's data source at startup and kept in a small pool.
+ * The allocators use them while their callers hold a pool connection in a transaction of their own, so taking a
+ * number never waits for a second connection from the main pool, and the row lock on a sequence is held only for
+ * the statements of one reservation. Up to {@code pool-size} such transactions run at once.
+ * <p>
+ * The pool is not a bean, so the statement counting wrapped around the application's data source sees its
+ * statements once.
+ */
+@Component
+public class SequenceConnectionPool {
+
+    static final String ADVANCE = "update Sequence_Block set Next_Value = Next_Value + ? where Name = ?";
+    private static final String CURRENT = "select Next_Value from Sequence_Block where Name = ?";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Value("${customer.sequence.pool-size:2}")
+    private int poolSize;
+
+    private HikariDataSource pool;
+
+    interface SqlWork<T> {
+        T apply(Connection connection) throws SQLException;
+    }
+
+    // before the allocators' own startup work, which already needs a connection
+    @PostConstruct
+    void open() {
+        HikariConfig config = new HikariConfig();
+        config.setPoolName("customer-sequence");
+        config.setDataSource(dataSource);
+        config.setMaximumPoolSize(poolSize);
+        config.setMinimumIdle(poolSize);
+        config.setAutoCommit(false);
+        pool = new HikariDataSource(config);
+    }
+
+    /**
+     * Runs the work in a transaction on one of the sequence connections and commits it.
+     */
+    <T> T inTransaction(SqlWork<T> work) {
+        try (Connection connection = pool.getConnection()) {
+            try {
+                T result = work.apply(connection);
+                connection.commit();
+                return result;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Could not take or release sequence values", e);
+        }
+    }
+
+    /**
+     * Moves the named sequence on by {@code size}, row-locking it until the transaction ends.
+     *
+     * @return its next value afterwards, or null if there is no such sequence
+     */
+    static Long advance(Connection connection, String name, long size) throws SQLException {
+        try (PreparedStatement advance = connection.prepareStatement(ADVANCE)) {
+            advance.setLong(1, size);
+            advance.setString(2, name);
+            if (advance.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        try (PreparedStatement current = connection.prepareStatement(CURRENT)) {
+            current.setString(1, name);
+            try (ResultSet result = current.executeQuery()) {
+                result.next();
+                return result.getLong(1);
+            }
+        }
+    }
+
+    @PreDestroy
+    void close() {
+        if (pool != null) {
+            pool.close();
+        }
+    }
+}
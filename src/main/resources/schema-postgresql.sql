@@ -0,0 +1,5 @@
+-- PostgreSQL only, after the layout's schema script: indexes for the name prefix search, which matches
+-- lower(name) like 'term%' against each of the three names. text_pattern_ops serves prefixes under any collation.
+create index if not exists Customer_First_Name_Idx on Customer (lower(First_Name) text_pattern_ops);
+create index if not exists Customer_Middle_Name_Idx on Customer (lower(Middle_Name) text_pattern_ops);
+create index if not exists Customer_Last_Name_Idx on Customer (lower(Last_Name) text_pattern_ops);
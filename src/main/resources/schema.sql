@@ -0,0 +1,36 @@
+-- Schema of the default JOINED layout, applied at startup before Hibernate validates the mapping against it.
+-- Every statement is idempotent; the customerstorage actuator endpoint adds the columns of the other layout.
+create sequence if not exists Address_Seq start with 1 increment by 50;
+create sequence if not exists Customer_Outbox_Seq start with 1 increment by 50;
+
+create table if not exists Customer (Account_No bigint not null, Change_Version bigint, Phone_Number bigint,
+    Version bigint, Password varchar(10) not null, Customer_Type varchar(31) not null,
+    First_Name varchar(50) not null, Last_Name varchar(50) not null, Middle_Name varchar(50) not null,
+    Email varchar(150) not null unique, primary key (Account_No));
+create table if not exists Individual (DOB date, Account_No bigint not null,
+    Gender varchar(255) check (Gender in ('MALE','FEMALE','OTHER')), primary key (Account_No),
+    constraint Individual_Customer_Fk foreign key (Account_No) references Customer on delete cascade);
+create table if not exists Corporate (Account_No bigint not null,
+    Company_Type varchar(255) check (Company_Type in ('GOVT','PRIVATE','NGO')), primary key (Account_No),
+    constraint Corporate_Customer_Fk foreign key (Account_No) references Customer on delete cascade);
+create table if not exists Address (Door_No varchar(5) not null, Account_No_FK bigint, Address_Id bigint not null,
+    ZipCode varchar(8) not null, City varchar(50) not null, Country varchar(50) not null,
+    State varchar(50) not null, Street_Name varchar(150) not null, primary key (Address_Id),
+    constraint Account_No foreign key (Account_No_FK) references Customer);
+create table if not exists Change_Version_Lease (Expires_At timestamp(6) with time zone not null,
+    First_Version bigint not null, Owner varchar(36) not null, primary key (First_Version));
+create table if not exists Customer_Outbox (Account_No bigint not null, Change_Version bigint not null,
+    Created_At timestamp(6) with time zone not null, Event_Id bigint not null, Event_Type varchar(10) not null,
+    Payload varchar(4000) not null, primary key (Event_Id));
+create table if not exists Customer_Tombstone (Account_No bigint not null, Change_Version bigint not null,
+    Deleted_At timestamp(6) with time zone not null, primary key (Change_Version));
+create table if not exists Sequence_Block (Next_Value bigint not null, Name varchar(50) not null,
+    primary key (Name));
+
+create index if not exists Address_Customer_Idx on Address (Account_No_FK);
+create index if not exists Address_City_Idx on Address (City);
+create index if not exists Address_State_Idx on Address (State);
+create index if not exists Address_ZipCode_Idx on Address (ZipCode);
+create index if not exists Address_Country_Idx on Address (Country);
+create index if not exists Customer_Change_Version_Idx on Customer (Change_Version);
+create index if not exists Customer_Outbox_Change_Version_Idx on Customer_Outbox (Change_Version);
@@ -0,0 +1,36 @@
+package com.semester4.customer_api;
+
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+// the context only starts if Hibernate finds every mapped table and column in what the script created
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+		"spring.datasource.url=jdbc:h2:mem:schemajoined;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+		"spring.sql.init.mode=always",
+		"spring.sql.init.platform=h2",
+		"spring.jpa.hibernate.ddl-auto=validate"})
+class CustomerSchemaScriptTest {
+
+	@Test
+	void joinedSchemaMatchesTheMapping() {
+	}
+
+	@Nested
+	@TestPropertySource(properties = {
+			"spring.datasource.url=jdbc:h2:mem:schemasingle;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+			"spring.jpa.mapping-resources=META-INF/orm-single-table.xml",
+			"spring.sql.init.schema-locations=classpath:schema-single-table.sql"})
+	class SingleTable {
+
+		@Test
+		void singleTableSchemaMatchesTheMapping() {
+		}
+	}
+}
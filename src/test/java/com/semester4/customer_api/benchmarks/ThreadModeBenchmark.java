@@ -0,0 +1,125 @@
+package com.semester4.customer_api.benchmarks;
+
+import com.semester4.customer_api.CustomerApiApplication;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.services.CustomerService;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Compares throughput and tail latency of platform-thread and virtual-thread request handling.
+ * <p>
+ * The application is started once per mode with the "test" profile (embedded H2). Pass the usual
+ * -Dspring.datasource.* properties to run against Postgres instead, which is where blocking JDBC
+ * calls make the difference between the modes visible. A fixed number of clients then keep
+ * reading customer pages, which always go to the database.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.semester4.customer_api.benchmarks.ThreadModeBenchmark \
+ *     -Dbenchmark.concurrency=1000 -Dbenchmark.seconds=30
+ * </pre>
+ */
+public class ThreadModeBenchmark {
+
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+    private static final int WARMUP_SECONDS = Integer.getInteger("benchmark.warmup-seconds", 10);
+    private static final int MEASURE_SECONDS = Integer.getInteger("benchmark.seconds", 30);
+    private static final int CUSTOMERS = Integer.getInteger("benchmark.customers", 5000);
+
+    public static void main(String[] args) throws Exception {
+        List<String> rows = new ArrayList<>();
+        for (boolean virtual : new boolean[]{false, true}) {
+            rows.add(run(virtual));
+        }
+
+        System.out.printf("%n%-10s %12s %10s %10s %10s %10s%n", "threads", "requests/s", "p50 ms", "p99 ms", "p99.9 ms", "errors");
+        rows.forEach(System.out::println);
+    }
+
+    private static String run(boolean virtual) throws Exception {
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(CustomerApiApplication.class)
+                .profiles("test")
+                .properties(
+                        "server.port=0",
+                        "spring.threads.virtual.enabled=" + virtual,
+                        "logging.level.root=WARN")
+                .run()) {
+
+            seed(context.getBean(CustomerService.class));
+            int port = context.getEnvironment().getRequiredProperty("local.server.port", Integer.class);
+
+            Recorder recorder = new Recorder(TimeUnit.SECONDS.toNanos(60), 3);
+            AtomicLong errors = new AtomicLong();
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            long warmupEnd = System.nanoTime() + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+            long end = warmupEnd + TimeUnit.SECONDS.toNanos(MEASURE_SECONDS);
+
+            // clients always run on virtual threads so the load generator is never the bottleneck
+            try (ExecutorService clients = Executors.newVirtualThreadPerTaskExecutor()) {
+                for (int i = 0; i < CONCURRENCY; i++) {
+                    clients.submit(() -> {
+                        while (System.nanoTime() < end) {
+                            long after = 1_000_000_000L + ThreadLocalRandom.current().nextLong(CUSTOMERS);
+                            HttpRequest request = HttpRequest.newBuilder(
+                                    URI.create("http://localhost:" + port + "/customers/v1.0?size=20&after=" + after)).build();
+                            long start = System.nanoTime();
+                            try {
+                                HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                                if (response.statusCode() != 200) {
+                                    errors.incrementAndGet();
+                                }
+                            } catch (Exception e) {
+                                errors.incrementAndGet();
+                            }
+                            if (start > warmupEnd) {
+                                recorder.recordValue(System.nanoTime() - start);
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+
+            Histogram histogram = recorder.getIntervalHistogram();
+            return String.format("%-10s %12.0f %10.2f %10.2f %10.2f %10d",
+                    virtual ? "virtual" : "platform",
+                    histogram.getTotalCount() / (double) MEASURE_SECONDS,
+                    histogram.getValueAtPercentile(50) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6,
+                    histogram.getValueAtPercentile(99.9) / 1e6,
+                    errors.get());
+        }
+    }
+
+    private static void seed(CustomerService customerService) {
+        List<Customer> customers = new ArrayList<>(CUSTOMERS);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            customers.add(Customer.builder()
+                    .fullName(FullName.builder().firstName("Bench").lastName("Mark").middleName("B").build())
+                    .email("bench" + i + "@example.com")
+                    .password("Password1")
+                    .phoneNumber(1234567890L)
+                    .build());
+        }
+        customerService.addCustomers(customers, List.of());
+    }
+}
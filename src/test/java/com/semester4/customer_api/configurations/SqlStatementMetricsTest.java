@@ -0,0 +1,156 @@
+package com.semester4.customer_api.configurations;
+
+import com.semester4.customer_api.models.Address;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.services.CustomerService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class SqlStatementMetricsTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private SqlStatementMetrics sqlStatementMetrics;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testRequestStatementsArePublishedByEndpoint() throws Exception {
+        Individual customer = individual("endpoint@sqlmetrics.example.com");
+        customerService.createCustomer(customer, List.of(address(customer)));
+        // other tests share the registry
+        DistributionSummary before = meterRegistry.find("customer.sql.statements")
+                .tags("scope", "request", "operation", "GET /customers/v1.0/{accountNo}")
+                .summary();
+        long requestsBefore = before == null ? 0 : before.count();
+
+        mockMvc.perform(get("/customers/v1.0/{accountNo}", customer.getAccountNo()))
+                .andExpect(status().isOk());
+
+        DistributionSummary statements = meterRegistry.get("customer.sql.statements")
+                .tags("scope", "request", "operation", "GET /customers/v1.0/{accountNo}")
+                .summary();
+        assertEquals(requestsBefore + 1, statements.count());
+        assertTrue(statements.totalAmount() > 0);
+        assertTrue(meterRegistry.get("customer.sql.rows")
+                .tags("scope", "request", "operation", "GET /customers/v1.0/{accountNo}")
+                .summary().totalAmount() > 0);
+        assertTrue(meterRegistry.get("customer.sql.statements")
+                .tags("scope", "service", "operation", "CustomerService.findCustomer")
+                .summary().count() > 0);
+    }
+
+    @Test
+    void testRepeatedLazyLoadsAreFlaggedAsNPlusOne() {
+        for (int i = 0; i < 6; i++) {
+            Individual customer = individual("lazy" + i + "@sqlmetrics.example.com");
+            customerService.createCustomer(customer, List.of(address(customer)));
+        }
+        List<LogRecord> warnings = new CopyOnWriteArrayList<>();
+        Handler handler = new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                warnings.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        };
+        Logger logger = Logger.getLogger(SqlStatementMetrics.class.getName());
+        logger.addHandler(handler);
+        try {
+            SqlStatementScope scope = SqlStatementScope.open();
+            try {
+                // each address loads its customer on first access, one select per customer
+                transactionTemplate.executeWithoutResult(status -> addressRepository.findAll()
+                        .forEach(address -> address.getCustomer().getEmail()));
+            } finally {
+                scope.close();
+            }
+            sqlStatementMetrics.recordRequest("GET /addresses", scope);
+
+            assertTrue(scope.getStatements() >= 7, scope.getStatements() + " statements");
+            assertTrue(warnings.stream().anyMatch(warning -> warning.getMessage()
+                            .startsWith("Likely N+1 in GET /addresses: 6 executions of select")),
+                    warnings.stream().map(LogRecord::getMessage).toList().toString());
+            assertEquals(1, meterRegistry.get("customer.sql.repeated")
+                    .tag("operation", "GET /addresses").counter().count());
+        } finally {
+            logger.removeHandler(handler);
+        }
+    }
+
+    @Test
+    void testShapeCollapsesLiteralsAndParameterLists() {
+        assertEquals("select * from customer c1_0 where c1_0.account_no in (?) and c1_0.email = ? limit ?",
+                SqlStatementScope.shape("select *  from customer c1_0\n where c1_0.account_no in (?, ?, ?)"
+                        + " and c1_0.email = 'a@b.com' limit 10"));
+    }
+
+    private static Individual individual(String email) {
+        return Individual.builder()
+                .fullName(FullName.builder().firstName("Sql").lastName("Metrics").middleName("S").build())
+                .email(email)
+                .password("Password1")
+                .gender(Gender.MALE)
+                .build();
+    }
+
+    private static Address address(Customer customer) {
+        return new Address(null, "12", "Main St", "City", "State", "12345", "Country", customer);
+    }
+}
@@ -0,0 +1,177 @@
+package com.semester4.customer_api.configurations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.opentelemetry.api.trace.Span;
+import io.opentelemetry.api.trace.StatusCode;
+import io.opentelemetry.api.trace.Tracer;
+import io.opentelemetry.context.Context;
+import io.opentelemetry.sdk.trace.SdkTracerProvider;
+import io.opentelemetry.sdk.trace.export.SimpleSpanProcessor;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TailSamplingSpanProcessorTest {
+
+    private static final String ENDPOINT = "GET /customers/v1.0/{accountNo}";
+
+    @TempDir
+    private Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SdkTracerProvider tracerProvider;
+
+    @AfterEach
+    void tearDown() {
+        if (tracerProvider != null) {
+            tracerProvider.close();
+        }
+    }
+
+    @Test
+    void testKeepsErrorsAndSlowTracesAndDropsTheRest() throws IOException {
+        Tracer tracer = tracer(0.0, 1, 10, 10);
+
+        Span failed = tracer.spanBuilder("failed").startSpan();
+        Span failedChild = child(tracer, failed);
+        failedChild.setStatus(StatusCode.ERROR);
+        failedChild.end();
+        failed.end();
+
+        // over the 100 ms of the endpoint, under the 1 s default
+        Span slow = request(tracer, 1000);
+        slow.end(1150, TimeUnit.MILLISECONDS);
+
+        Span fast = request(tracer, 1000);
+        child(tracer, fast).end();
+        fast.end(1020, TimeUnit.MILLISECONDS);
+
+        List<String> exported = exported();
+        assertEquals(3, exported.size(), exported.toString());
+        assertEquals(2, exported.stream().filter(span -> span.contains(failed.getSpanContext().getTraceId())).count());
+        assertTrue(exported.stream().anyMatch(span -> span.contains(slow.getSpanContext().getSpanId())));
+        assertTrue(exported.stream().noneMatch(span -> span.contains(fast.getSpanContext().getTraceId())));
+
+        assertEquals(1, traces("error"));
+        assertEquals(1, traces("slow"));
+        assertEquals(1, traces("dropped"));
+        assertEquals(2, droppedSpans("sampled-out"));
+    }
+
+    @Test
+    void testSamplesNormalTrafficAtTheRate() throws IOException {
+        Tracer tracer = tracer(1.0, 1, 10, 10);
+
+        Span normal = request(tracer, 1000);
+        child(tracer, normal).end();
+        normal.end(1020, TimeUnit.MILLISECONDS);
+
+        assertEquals(2, exported().size());
+        assertEquals(1, traces("sampled"));
+    }
+
+    @Test
+    void testBoundsTheSpansHeldWhileTracesAreOpen() throws IOException {
+        Tracer tracer = tracer(1.0, 1, 1, 2);
+
+        Span open = tracer.spanBuilder("open").startSpan();
+        child(tracer, open).end();
+        child(tracer, open).end();
+        child(tracer, open).end();
+        // a second open trace does not fit in the buffer
+        Span other = tracer.spanBuilder("other").startSpan();
+        child(tracer, other).end();
+
+        open.end();
+
+        // the root is always kept with the spans that fitted
+        assertEquals(3, exported().size());
+        assertEquals(1, droppedSpans("trace-too-long"));
+        assertEquals(1, droppedSpans("buffer-full"));
+    }
+
+    @Test
+    void testExpiresAChildThatEndsAfterItsRoot() throws Exception {
+        TailSamplingSpanProcessor processor = processor(1.0, 1, 1, 10, Duration.ofMillis(500));
+        Tracer tracer = tracer(processor);
+
+        Span root = tracer.spanBuilder("root").startSpan();
+        Span child = child(tracer, root);
+        root.end();
+        // the root was decided alone, so the child waits for a root that never comes
+        child.end();
+        Span other = tracer.spanBuilder("other").startSpan();
+        child(tracer, other).end();
+        assertEquals(1, droppedSpans("buffer-full"));
+
+        Thread.sleep(600);
+        processor.expireTraces();
+        assertEquals(1, droppedSpans("expired"));
+
+        // the buffer has room again
+        child(tracer, other).end();
+        other.end();
+        assertEquals(3, exported().size());
+        assertEquals(1, droppedSpans("buffer-full"));
+    }
+
+    @Test
+    void testParsesEndpointThresholds() {
+        assertEquals(Map.of(ENDPOINT, Duration.ofMillis(100), "POST /customers/v1.0/batch", Duration.ofSeconds(5)),
+                TailSamplingConfig.parseThresholds(ENDPOINT + "=100ms, POST /customers/v1.0/batch=5s"));
+        assertEquals(Map.of(), TailSamplingConfig.parseThresholds(""));
+    }
+
+    private Tracer tracer(double rate, long thresholdSeconds, int maxTraces, int maxSpansPerTrace) {
+        return tracer(processor(rate, thresholdSeconds, maxTraces, maxSpansPerTrace, Duration.ofMinutes(1)));
+    }
+
+    private Tracer tracer(TailSamplingSpanProcessor processor) {
+        tracerProvider = SdkTracerProvider.builder().addSpanProcessor(processor).build();
+        return tracerProvider.get("test");
+    }
+
+    private TailSamplingSpanProcessor processor(double rate, long thresholdSeconds, int maxTraces,
+                                                int maxSpansPerTrace, Duration traceTimeout) {
+        FileSpanExporter exporter = new FileSpanExporter(directory.resolve("spans.json"));
+        return new TailSamplingSpanProcessor(SimpleSpanProcessor.create(exporter),
+                rate, Duration.ofSeconds(thresholdSeconds), Map.of(ENDPOINT, Duration.ofMillis(100)),
+                maxTraces, maxSpansPerTrace, traceTimeout, meterRegistry);
+    }
+
+    // a server span as the observation of a request tags it
+    private static Span request(Tracer tracer, long startMillis) {
+        return tracer.spanBuilder("http get /customers/v1.0/{accountNo}")
+                .setStartTimestamp(startMillis, TimeUnit.MILLISECONDS)
+                .setAttribute("method", "GET")
+                .setAttribute("uri", "/customers/v1.0/{accountNo}")
+                .startSpan();
+    }
+
+    private static Span child(Tracer tracer, Span parent) {
+        return tracer.spanBuilder("child").setParent(Context.root().with(parent)).startSpan();
+    }
+
+    private List<String> exported() throws IOException {
+        Path file = directory.resolve("spans.json");
+        return Files.exists(file) ? Files.readAllLines(file) : List.of();
+    }
+
+    private double traces(String decision) {
+        return meterRegistry.get("tracing.tail.traces").tag("decision", decision).counter().count();
+    }
+
+    private double droppedSpans(String reason) {
+        return meterRegistry.get("tracing.tail.spans.dropped").tag("reason", reason).counter().count();
+    }
+}
@@ -0,0 +1,41 @@
+package com.semester4.customer_api.configurations;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    @Test
+    void testPinnedVirtualThreadIsRecorded() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VirtualThreadPinningMonitor monitor = new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(10));
+        monitor.start();
+        try {
+            // blocking while holding a monitor pins the virtual thread to its carrier
+            Thread.ofVirtual().start(() -> {
+                synchronized (lock) {
+                    try {
+                        Thread.sleep(50);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }).join();
+
+            long deadline = System.nanoTime() + Duration.ofSeconds(10).toNanos();
+            while (meterRegistry.get("jvm.threads.virtual.pinned").timer().count() == 0 && System.nanoTime() < deadline) {
+                Thread.sleep(100);
+            }
+
+            assertTrue(meterRegistry.get("jvm.threads.virtual.pinned").timer().count() > 0);
+        } finally {
+            monitor.stop();
+        }
+    }
+}
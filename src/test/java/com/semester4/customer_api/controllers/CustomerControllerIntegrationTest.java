@@ -1,12 +1,22 @@
 package com.semester4.customer_api.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.semester4.customer_api.configurations.CacheConfig;
 import com.semester4.customer_api.dto.AddressDTO;
 import com.semester4.customer_api.dto.CustomerDTO;
 import com.semester4.customer_api.dto.FullNameDTO;
+import com.semester4.customer_api.models.Address;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Corporate;
 import com.semester4.customer_api.models.Customer;
 import com.semester4.customer_api.models.FullName;
 import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
 import com.semester4.customer_api.services.CustomerService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,23 +24,50 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
+@ActiveProfiles("test")
 @AutoConfigureMockMvc
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
 class CustomerControllerIntegrationTest {
 
+    // admin:1234 from SecurityConfig
+    private static final String ADMIN_BASIC_AUTH = "Basic YWRtaW46MTIzNA==";
+
     @Autowired
     private MockMvc mockMvc;
 
     @Autowired
     private CustomerService customerService;
 
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -41,6 +78,10 @@ class CustomerControllerIntegrationTest {
 
     @BeforeEach
     void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.CUSTOMERS).clear();
+
         FullNameDTO fullNameDTO = FullNameDTO.builder()
                 .firstName("John")
                 .lastName("Doe")
@@ -96,16 +137,22 @@ class CustomerControllerIntegrationTest {
     @Test
     void testCreateIndividualCustomer_Success() throws Exception {
         mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(validIndividualDTO)))
                 .andExpect(status().isCreated())
                 .andExpect(jsonPath("$.data.email").value("john.doe@example.com"))
+                .andExpect(jsonPath("$.data.gender").value("MALE"))
+                .andExpect(jsonPath("$.data.password").doesNotExist())
+                .andExpect(jsonPath("$.data.addresses[0].city").value("City"))
+                .andExpect(jsonPath("$.data.addresses[0].customer").doesNotExist())
                 .andExpect(jsonPath("$.message").value("Customer created successfully"));
     }
 
     @Test
     void testCreateCorporateCustomer_Success() throws Exception {
         mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(validCorporateDTO)))
                 .andExpect(status().isCreated())
@@ -116,6 +163,7 @@ class CustomerControllerIntegrationTest {
     @Test
     void testCreateCustomer_InvalidPhone() throws Exception {
         mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(invalidPhoneDTO)))
                 .andExpect(status().isBadRequest())
@@ -125,12 +173,107 @@ class CustomerControllerIntegrationTest {
     @Test
     void testCreateIndividual_WithoutGender() throws Exception {
         mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(individualWithoutGenderDTO)))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Gender is required for individual accounts"));
     }
 
+    @Test
+    void testCreateCustomersInBatch_ReportsEachItem() throws Exception {
+        CustomerDTO first = batchCustomer(9300000001L, "batch1@example.com", "Password1");
+        CustomerDTO invalidPassword = batchCustomer(9300000002L, "batch2@example.com", "weak");
+        CustomerDTO duplicateEmail = batchCustomer(9300000003L, "batch1@example.com", "Password1");
+        CustomerDTO generatedAccountNo = batchCustomer(null, "batch4@example.com", "Password1");
+
+        mockMvc.perform(post("/customers/v1.0/batch")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                List.of(first, invalidPassword, duplicateEmail, generatedAccountNo))))
+                .andExpect(status().isMultiStatus())
+                .andExpect(jsonPath("$.message").value("2 of 4 customers created"))
+                .andExpect(jsonPath("$.data[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.data[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.data[2].status").value("FAILED"))
+                .andExpect(jsonPath("$.data[2].message").value("Customer with email batch1@example.com already exists"))
+                .andExpect(jsonPath("$.data[3].status").value("CREATED"))
+                .andExpect(jsonPath("$.data[3].accountNo").isNumber());
+
+        assertEquals("batch1@example.com", customerService.findCustomer(9300000001L).getEmail());
+    }
+
+    private CustomerDTO batchCustomer(Long accountNo, String email, String password) {
+        return CustomerDTO.builder()
+                .accountNo(accountNo)
+                .fullName(FullNameDTO.builder().firstName("Batch").lastName("Loader").middleName("B").build())
+                .email(email)
+                .password(password)
+                .phoneNumber("1234567890")
+                .address(new AddressDTO(null, "1", "Bulk St", "City", "State", "12345", "Country", null))
+                .accountType(CustomerDTO.AccountType.CORPORATE)
+                .build();
+    }
+
+    @Test
+    void testCreateCustomer_DuplicateEmailRejectedBeforeInsert() throws Exception {
+        mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validIndividualDTO)))
+                .andExpect(status().isCreated());
+
+        validIndividualDTO.setAccountNo(null);
+        mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validIndividualDTO)))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Customer with email john.doe@example.com already exists"));
+
+        mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .param("accountNo", "1234567890")
+                        .param("newEmail", "john.doe@example.com"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testUpdateCustomer_EmailTakenReturnsConflict() throws Exception {
+        customerService.addCustomer(pagingCustomer(9400000001L));
+        customerService.addCustomer(pagingCustomer(9400000002L));
+
+        mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .param("accountNo", "9400000002")
+                        .param("newEmail", "9400000001@example.com"))
+                .andExpect(status().isConflict());
+
+        // the released address can be taken once its owner moves on
+        mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .param("accountNo", "9400000001")
+                        .param("newEmail", "moved@example.com"))
+                .andExpect(status().isOk());
+        mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .param("accountNo", "9400000002")
+                        .param("newEmail", "9400000001@example.com"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testAddCustomer_ExistingAccountNoIsNotOverwritten() {
+        customerService.addCustomer(pagingCustomer(9400000001L));
+
+        Customer duplicate = pagingCustomer(9400000001L);
+        duplicate.setEmail("someone.else@example.com");
+
+        assertThrows(DataIntegrityViolationException.class, () -> customerService.addCustomer(duplicate));
+        assertEquals("9400000001@example.com", customerService.findCustomer(9400000001L).getEmail());
+    }
+
     @Test
     void testGetAllCustomers() throws Exception {
         // First create a customer
@@ -151,6 +294,216 @@ class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$").isArray());
     }
 
+    @Test
+    void testGetCustomers_PagedByCursor() throws Exception {
+        for (long accountNo = 9800000001L; accountNo <= 9800000003L; accountNo++) {
+            customerService.addCustomer(pagingCustomer(accountNo));
+        }
+
+        mockMvc.perform(get("/customers/v1.0")
+                        .param("after", "9800000000")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].accountNo").value(9800000001L))
+                .andExpect(jsonPath("$[1].accountNo").value(9800000002L))
+                .andExpect(header().string(CustomerController.NEXT_CURSOR_HEADER, "9800000002"));
+
+        mockMvc.perform(get("/customers/v1.0")
+                        .param("after", "9800000002")
+                        .param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].accountNo").value(9800000003L))
+                .andExpect(header().doesNotExist(CustomerController.NEXT_CURSOR_HEADER));
+    }
+
+    @Test
+    void testStreamCustomers() throws Exception {
+        customerService.addCustomer(pagingCustomer(9200000001L));
+
+        MvcResult result = mockMvc.perform(get("/customers/v1.0/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String body = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.split("\n");
+        assertEquals(customerService.getCustomers().size(), lines.length);
+        assertTrue(Arrays.stream(lines).anyMatch(line -> line.contains("\"accountNo\":9200000001")));
+    }
+
+    @Test
+    void testGetChanges_JsonPagesAndNdjsonStream() throws Exception {
+        long since = customerService.addCustomer(pagingCustomer(9200000002L)).getChangeVersion() - 1;
+        customerService.addCustomer(pagingCustomer(9200000003L));
+        customerService.deleteCustomer(9200000002L);
+
+        mockMvc.perform(get("/customers/v1.0/changes").param("since", String.valueOf(since)).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].accountNo").value(9200000003L))
+                .andExpect(jsonPath("$[0].deleted").value(false))
+                .andExpect(header().exists(CustomerController.NEXT_CURSOR_HEADER));
+
+        MvcResult result = mockMvc.perform(get("/customers/v1.0/changes")
+                        .param("since", String.valueOf(since))
+                        .accept(MediaType.APPLICATION_NDJSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String[] lines = mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString().split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[1].contains("\"accountNo\":9200000002") && lines[1].contains("\"deleted\":true"));
+    }
+
+    @Test
+    void testGetCustomers_NegotiatesBinaryFormats() throws Exception {
+        customerService.addCustomer(pagingCustomer(9200000006L));
+
+        byte[] cbor = mockMvc.perform(get("/customers/v1.0").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode customers = new ObjectMapper(new CBORFactory()).readTree(cbor);
+        assertEquals(9200000006L, customers.get(0).get("accountNo").asLong());
+
+        byte[] smile = mockMvc.perform(get("/customers/v1.0/{accountNo}", 9200000006L)
+                        .accept("application/x-jackson-smile"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsByteArray();
+        JsonNode lookup = new ObjectMapper(new SmileFactory()).readTree(smile);
+        assertEquals("9200000006@example.com", lookup.get("data").get("email").asText());
+
+        // JSON stays the default
+        mockMvc.perform(get("/customers/v1.0"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testGetCustomerSummaries_FilteredByType() throws Exception {
+        customerService.addCustomer(pagingCustomer(9300000001L));
+        customerService.addIndividual(Individual.builder()
+                .accountNo(9300000002L)
+                .fullName(FullName.builder().firstName("Ind").lastName("Ividual").middleName("I").build())
+                .email("individual@example.com")
+                .password("Password1")
+                .gender(Gender.FEMALE)
+                .build());
+        customerService.addCorporate(Corporate.builder()
+                .accountNo(9300000003L)
+                .fullName(FullName.builder().firstName("Corp").lastName("Orate").middleName("C").build())
+                .email("corporate@example.com")
+                .password("Password1")
+                .companyType(CompanyType.PRIVATE)
+                .build());
+
+        mockMvc.perform(get("/customers/v1.0/summaries").param("size", "2"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].accountNo").value(9300000001L))
+                .andExpect(jsonPath("$[0].password").doesNotExist())
+                .andExpect(header().string(CustomerController.NEXT_CURSOR_HEADER, "9300000002"));
+
+        mockMvc.perform(get("/customers/v1.0/summaries").param("type", "INDIVIDUAL"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].accountNo").value(9300000002L))
+                .andExpect(jsonPath("$[0].gender").value("FEMALE"));
+
+        mockMvc.perform(get("/customers/v1.0/summaries").param("type", "CORPORATE"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].accountNo").value(9300000003L))
+                .andExpect(jsonPath("$[0].companyType").value("PRIVATE"));
+    }
+
+    @Test
+    void testGetCustomerSummaryById() throws Exception {
+        customerService.addCustomer(pagingCustomer(9300000004L));
+
+        mockMvc.perform(get("/customers/v1.0/summaries/{accountNo}", 9300000004L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.fullName.firstName").value("Page"));
+
+        mockMvc.perform(get("/customers/v1.0/summaries/{accountNo}", 9999999999L))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSearchCustomers_ByNameEmailAndAddress() throws Exception {
+        mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validIndividualDTO)))
+                .andExpect(status().isCreated());
+        validCorporateDTO.setFullName(FullNameDTO.builder().firstName("Acme").lastName("Holdings").middleName("A").build());
+        validCorporateDTO.getAddress().setCity("Lagos");
+        mockMvc.perform(post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validCorporateDTO)))
+                .andExpect(status().isCreated());
+
+        mockMvc.perform(get("/customers/v1.0/search").param("name", "jo d"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("john.doe@example.com"));
+
+        mockMvc.perform(get("/customers/v1.0/search").param("city", "Lagos"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].email").value("corp@example.com"));
+
+        mockMvc.perform(get("/customers/v1.0/search").param("name", "acme").param("city", "City"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+
+        mockMvc.perform(get("/customers/v1.0/search").param("email", "corp@example.com").param("country", "Country"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fullName.firstName").value("Acme"));
+
+        mockMvc.perform(get("/customers/v1.0/search"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSearchCustomers_MatchesNamePrefixesLiterally() throws Exception {
+        customerService.addCustomer(pagingCustomer(9300000005L));
+        Customer mary = pagingCustomer(9300000006L);
+        mary.setFullName(FullName.builder().firstName("Mary_Ann").lastName("O'Neil").middleName("Q").build());
+        customerService.addCustomer(mary);
+
+        mockMvc.perform(get("/customers/v1.0/search").param("name", "P READ"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].accountNo").value(9300000005L));
+
+        mockMvc.perform(get("/customers/v1.0/search").param("name", "q o'n mary_"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].accountNo").value(9300000006L));
+
+        mockMvc.perform(get("/customers/v1.0/search").param("name", "%"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    private Customer pagingCustomer(long accountNo) {
+        return Customer.builder()
+                .accountNo(accountNo)
+                .fullName(FullName.builder().firstName("Page").lastName("Reader").middleName("P").build())
+                .email(accountNo + "@example.com")
+                .password("Password1")
+                .phoneNumber(accountNo)
+                .build();
+    }
+
     @Test
     void testGetCustomerById_Success() throws Exception {
         // Create customer
@@ -178,6 +531,22 @@ class CustomerControllerIntegrationTest {
                 .andExpect(jsonPath("$.message").value("Customer with account number 9999999999 not found"));
     }
 
+    @Test
+    void testUpdateCustomer_EmailTakenBehindTheFilterReturnsConflict() throws Exception {
+        customerService.addCustomer(pagingCustomer(9400000003L));
+        // stored without the service, so the email filter has not seen it, as with a write racing this one
+        Customer unseen = pagingCustomer(9400000004L);
+        unseen.setEmail("unseen@example.com");
+        customerRepository.save(unseen);
+
+        mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .param("accountNo", "9400000003")
+                        .param("newEmail", "unseen@example.com"))
+                .andExpect(status().isConflict())
+                .andExpect(jsonPath("$.message").value("Customer with this email already exists"));
+    }
+
     @Test
     void testUpdateCustomer_Success() throws Exception {
         // Create customer
@@ -194,21 +563,184 @@ class CustomerControllerIntegrationTest {
         ));
 
         mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .param("accountNo", customer.getAccountNo().toString())
                         .param("newEmail", "updated@example.com"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.data.email").value("updated@example.com"));
     }
 
+    @Test
+    void testGetCustomerById_ConditionalOnVersion() throws Exception {
+        long accountNo = customerService.addCustomer(pagingCustomer(9200000004L)).getAccountNo();
+
+        String etag = mockMvc.perform(get("/customers/v1.0/{accountNo}", accountNo))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"0\""))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/customers/v1.0/{accountNo}", accountNo).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+
+        customerService.updateCustomer(accountNo, "changed@example.com");
+
+        mockMvc.perform(get("/customers/v1.0/{accountNo}", accountNo).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.data.email").value("changed@example.com"));
+    }
+
+    @Test
+    void testUpdateCustomer_IfMatch() throws Exception {
+        long accountNo = customerService.addCustomer(pagingCustomer(9200000005L)).getAccountNo();
+
+        mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .param("accountNo", String.valueOf(accountNo))
+                        .param("newEmail", "first@example.com"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""));
+
+        // a second writer still holding version 0 loses
+        mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .param("accountNo", String.valueOf(accountNo))
+                        .param("newEmail", "second@example.com"))
+                .andExpect(status().isPreconditionFailed());
+
+        assertEquals("first@example.com", customerRepository.findById(accountNo).orElseThrow().getEmail());
+    }
+
     @Test
     void testUpdateCustomer_NotFound() throws Exception {
         mockMvc.perform(put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .param("accountNo", "9999999999")
                         .param("newEmail", "updated@example.com"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Customer not updated"));
     }
 
+    @Test
+    void testPatchCustomer_WritesOnlySentFields() throws Exception {
+        Individual individual = Individual.builder()
+                .accountNo(9200000006L)
+                .fullName(FullName.builder().firstName("Patch").lastName("Target").middleName("P").build())
+                .email("patch@example.com")
+                .password("Password1")
+                .phoneNumber(1234567890L)
+                .gender(Gender.FEMALE)
+                .build();
+        Address address = new Address(null, "12", "Main St", "City", "State", "12345", "Country", individual);
+        long accountNo = customerService.createCustomer(individual, List.of(address)).getAccountNo();
+
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", accountNo)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType("application/merge-patch+json")
+                        .content("{\"fullName\": {\"middleName\": \"Q\"}, \"phoneNumber\": \"01234567899\", "
+                                + "\"dateOfBirth\": \"1990-01-02\", "
+                                + "\"addresses\": [{\"addressId\": " + address.getAddressId() + ", \"city\": \"Elsewhere\"}]}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.data").value(1));
+
+        Individual patched = (Individual) customerRepository.findById(accountNo).orElseThrow();
+        assertEquals(FullName.builder().firstName("Patch").lastName("Target").middleName("Q").build(), patched.getFullName());
+        assertEquals("patch@example.com", patched.getEmail());
+        assertEquals(1234567899L, patched.getPhoneNumber());
+        assertEquals(Gender.FEMALE, patched.getGender());
+        assertEquals(LocalDate.of(1990, 1, 2), patched.getDateOfBirth());
+        Address patchedAddress = addressRepository.findAll().get(0);
+        assertEquals("Elsewhere", patchedAddress.getCity());
+        assertEquals("Main St", patchedAddress.getStreet());
+
+        // a corporate field fails the whole patch, leaving the version where it was
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", accountNo)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"other@example.com\", \"companyType\": \"NGO\"}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Customer " + accountNo + " is not a corporate"));
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", accountNo)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .header(HttpHeaders.IF_MATCH, "\"0\"")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"stale@example.com\"}"))
+                .andExpect(status().isPreconditionFailed());
+        assertEquals(1L, customerRepository.findById(accountNo).orElseThrow().getVersion());
+    }
+
+    @Test
+    void testPatchCustomer_MergePatchNullRemovesNullableFields() throws Exception {
+        Individual individual = Individual.builder()
+                .accountNo(9200000008L)
+                .fullName(FullName.builder().firstName("Merge").lastName("Target").middleName("M").build())
+                .email("merge@example.com")
+                .password("Password1")
+                .phoneNumber(1234567890L)
+                .gender(Gender.MALE)
+                .dateOfBirth(LocalDate.of(1980, 3, 4))
+                .build();
+        long accountNo = customerService.addIndividual(individual).getAccountNo();
+
+        // application/json keeps treating null as unchanged
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", accountNo)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\": null, \"fullName\": {\"middleName\": null}}"))
+                .andExpect(status().isOk());
+        assertEquals(1234567890L, customerRepository.findById(accountNo).orElseThrow().getPhoneNumber());
+
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", accountNo)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"phoneNumber\": null, \"dateOfBirth\": null, \"email\": \"merged@example.com\"}"))
+                .andExpect(status().isOk());
+        Individual patched = (Individual) customerRepository.findById(accountNo).orElseThrow();
+        assertNull(patched.getPhoneNumber());
+        assertNull(patched.getDateOfBirth());
+        assertEquals(Gender.MALE, patched.getGender());
+        assertEquals("merged@example.com", patched.getEmail());
+
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", accountNo)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType("application/merge-patch+json")
+                        .content("{\"gender\": null, \"fullName\": {\"middleName\": null}, "
+                                + "\"addresses\": [{\"addressId\": 1, \"city\": null}]}"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Every customer has fullName.middleName, addresses.city"));
+        assertEquals(Gender.MALE, ((Individual) customerRepository.findById(accountNo).orElseThrow()).getGender());
+    }
+
+    @Test
+    void testPatchCustomer_ReturnsRepresentationOnRequest() throws Exception {
+        long accountNo = customerService.addCustomer(pagingCustomer(9200000007L)).getAccountNo();
+        // cached before the patch, so a stale entry would show in the answer
+        customerService.findCustomer(accountNo);
+
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", accountNo)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .header("Prefer", "return=representation")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"email\": \"patched@example.com\", \"fullName\": {\"firstName\": \"Patched\"}}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Preference-Applied", "return=representation"))
+                .andExpect(header().string(HttpHeaders.ETAG, "\"1\""))
+                .andExpect(jsonPath("$.data.email").value("patched@example.com"))
+                .andExpect(jsonPath("$.data.fullName.firstName").value("Patched"))
+                .andExpect(jsonPath("$.data.fullName.lastName").value("Reader"));
+
+        mockMvc.perform(patch("/customers/v1.0/{accountNo}", 9999999999L)
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\": \"0123456789\"}"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void testDeleteCustomer_Success() throws Exception {
         // Create customer
@@ -225,6 +757,7 @@ class CustomerControllerIntegrationTest {
         ));
 
         mockMvc.perform(delete("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .param("accountNo", customer.getAccountNo().toString()))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.message").value("Customer deleted successfully"));
@@ -233,8 +766,46 @@ class CustomerControllerIntegrationTest {
     @Test
     void testDeleteCustomer_NotFound() throws Exception {
         mockMvc.perform(delete("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
                         .param("accountNo", "9999999999"))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Customer with account number 9999999999 not found"));
     }
+
+    @Test
+    void testDeleteCustomers_ByListAndRange() throws Exception {
+        Customer withAddress = pagingCustomer(9300000001L);
+        customerService.createCustomer(withAddress,
+                List.of(new Address(null, "12", "Main St", "City", "State", "12345", "Country", withAddress)));
+        customerService.addCustomer(pagingCustomer(9300000002L));
+        customerService.addCustomer(pagingCustomer(9300000003L));
+        customerService.addCustomer(pagingCustomer(9300000004L));
+        // cached before the delete, so a stale entry would still answer below
+        customerService.findCustomer(9300000001L);
+
+        mockMvc.perform(post("/customers/v1.0/batch/delete")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountNos\": [9300000001, 9300000002, 9999999999]}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.customers").value(2))
+                .andExpect(jsonPath("$.data.addresses").value(1))
+                .andExpect(jsonPath("$.message").value("2 customers and 1 addresses deleted"));
+        mockMvc.perform(get("/customers/v1.0/{accountNo}", 9300000001L))
+                .andExpect(status().isNotFound());
+
+        mockMvc.perform(post("/customers/v1.0/batch/delete")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"after\": 9300000002, \"upTo\": 9300000003}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.customers").value(1));
+        assertEquals(List.of(9300000004L), customerRepository.findAll().stream().map(Customer::getAccountNo).toList());
+
+        mockMvc.perform(post("/customers/v1.0/batch/delete")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"accountNos\": [9300000004], \"upTo\": 9300000004}"))
+                .andExpect(status().isBadRequest());
+    }
 }
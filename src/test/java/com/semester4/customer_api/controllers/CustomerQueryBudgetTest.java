@@ -0,0 +1,256 @@
+package com.semester4.customer_api.controllers;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.semester4.customer_api.configurations.CacheConfig;
+import com.semester4.customer_api.dto.AddressDTO;
+import com.semester4.customer_api.dto.BulkDeleteRequest;
+import com.semester4.customer_api.dto.CustomerDTO;
+import com.semester4.customer_api.dto.FullNameDTO;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultMatcher;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+import java.util.function.LongFunction;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * SQL statements, JDBC round trips and allocated bytes of each customer endpoint against the embedded database,
+ * checked against a budget per endpoint so that a mapping or query change that makes an operation dearer fails the
+ * build. Statements and round trips come from the customer.sql meters, bytes from the allocations of the test
+ * thread, which MockMvc runs the request on. Each operation runs once before it is measured.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureMockMvc
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class CustomerQueryBudgetTest {
+
+    // admin:1234 from SecurityConfig
+    private static final String ADMIN_BASIC_AUTH = "Basic YWRtaW46MTIzNA==";
+    private static final long FIRST_ACCOUNT_NO = 9400000000L;
+    private static final int CUSTOMERS = 20;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private record Cost(long statements, long roundTrips, long allocatedBytes) {
+    }
+
+    @BeforeEach
+    void setUp() throws Exception {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+        cacheManager.getCache(CacheConfig.CUSTOMERS).clear();
+        cacheManager.getCache(CacheConfig.CUSTOMER_VERSIONS).clear();
+
+        mockMvc.perform(post("/customers/v1.0/batch")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(LongStream.range(0, CUSTOMERS)
+                                .mapToObj(i -> individual(FIRST_ACCOUNT_NO + i, "budget" + i + "@example.com"))
+                                .toList())))
+                .andExpect(status().isCreated());
+    }
+
+    @Test
+    void testCreateIndividualWithAddress() throws Exception {
+        // customer, individual, address and outbox inserts, plus two statements to take the change version
+        // and one to release it
+        assertWithinBudget("POST /customers/v1.0", 7, 7, 1_000_000,
+                accountNo -> post("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(individual(accountNo, "create" + accountNo + "@example.com"))),
+                status().isCreated());
+    }
+
+    @Test
+    void testCreateBatchOfTen() throws Exception {
+        // the inserts of all ten customers go out as one JDBC batch per table
+        assertWithinBudget("POST /customers/v1.0/batch", 43, 7, 1_500_000,
+                accountNo -> post("/customers/v1.0/batch")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(LongStream.range(accountNo, accountNo + 10)
+                                .mapToObj(no -> individual(no, "batch" + no + "@example.com"))
+                                .toList())),
+                status().isCreated());
+    }
+
+    @Test
+    void testGetCustomer() throws Exception {
+        assertWithinBudget("GET /customers/v1.0/{accountNo}", 2, 2, 500_000,
+                accountNo -> get("/customers/v1.0/{accountNo}", existing(accountNo)),
+                status().isOk());
+    }
+
+    @Test
+    void testGetPage() throws Exception {
+        assertWithinBudget("GET /customers/v1.0", 1, 1, 600_000,
+                accountNo -> get("/customers/v1.0").param("size", "10"),
+                status().isOk());
+    }
+
+    @Test
+    void testGetSummaries() throws Exception {
+        assertWithinBudget("GET /customers/v1.0/summaries", 1, 1, 500_000,
+                accountNo -> get("/customers/v1.0/summaries").param("size", "10"),
+                status().isOk());
+    }
+
+    @Test
+    void testSearchByEmail() throws Exception {
+        assertWithinBudget("GET /customers/v1.0/search", 1, 1, 500_000,
+                accountNo -> get("/customers/v1.0/search")
+                        .param("email", "budget" + (existing(accountNo) - FIRST_ACCOUNT_NO) + "@example.com"),
+                status().isOk());
+    }
+
+    @Test
+    void testUpdateEmail() throws Exception {
+        assertWithinBudget("PUT /customers/v1.0", 6, 6, 600_000,
+                accountNo -> put("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .param("accountNo", String.valueOf(existing(accountNo)))
+                        .param("newEmail", "updated" + accountNo + "@example.com"),
+                status().isOk());
+    }
+
+    @Test
+    void testPatchPhoneNumber() throws Exception {
+        // no read before the write
+        assertWithinBudget("PATCH /customers/v1.0/{accountNo}", 7, 7, 600_000,
+                accountNo -> patch("/customers/v1.0/{accountNo}", existing(accountNo))
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"phoneNumber\":\"0987654321\"}"),
+                status().isOk());
+    }
+
+    @Test
+    void testDeleteCustomer() throws Exception {
+        assertWithinBudget("DELETE /customers/v1.0", 10, 10, 700_000,
+                accountNo -> delete("/customers/v1.0")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .param("accountNo", String.valueOf(existing(accountNo))),
+                status().isOk());
+    }
+
+    @Test
+    void testDeleteBatchOfFive() throws Exception {
+        // one delete per table for all five, with their tombstones and change events inserted in batches
+        assertWithinBudget("POST /customers/v1.0/batch/delete", 18, 10, 1_000_000,
+                accountNo -> post("/customers/v1.0/batch/delete")
+                        .header(HttpHeaders.AUTHORIZATION, ADMIN_BASIC_AUTH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json(new BulkDeleteRequest(
+                                LongStream.range(existing(accountNo), existing(accountNo) + 5).boxed().toList(),
+                                null, null))),
+                status().isOk());
+    }
+
+    /**
+     * Runs the request twice, for a first and a second account number, and checks the cost of the second run.
+     */
+    private void assertWithinBudget(String operation, long maxStatements, long maxRoundTrips, long maxAllocatedBytes,
+                                    LongFunction<MockHttpServletRequestBuilder> request,
+                                    ResultMatcher expected) throws Exception {
+        mockMvc.perform(request.apply(FIRST_ACCOUNT_NO + 100)).andExpect(expected);
+        Cost cost = measure(operation, request.apply(FIRST_ACCOUNT_NO + 200), expected);
+
+        String report = operation + " cost " + cost;
+        assertTrue(cost.statements() > 0, report);
+        assertTrue(cost.statements() <= maxStatements, report + ", over the budget of " + maxStatements + " statements");
+        assertTrue(cost.roundTrips() <= maxRoundTrips, report + ", over the budget of " + maxRoundTrips + " round trips");
+        assertTrue(cost.allocatedBytes() <= maxAllocatedBytes,
+                report + ", over the budget of " + maxAllocatedBytes + " allocated bytes");
+    }
+
+    private Cost measure(String operation, MockHttpServletRequestBuilder request, ResultMatcher expected)
+            throws Exception {
+        double statements = total("customer.sql.statements", operation);
+        double roundTrips = total("customer.sql.round-trips", operation);
+        long allocated = threads.getCurrentThreadAllocatedBytes();
+
+        mockMvc.perform(request).andExpect(expected);
+
+        allocated = threads.getCurrentThreadAllocatedBytes() - allocated;
+        return new Cost((long) (total("customer.sql.statements", operation) - statements),
+                (long) (total("customer.sql.round-trips", operation) - roundTrips),
+                allocated);
+    }
+
+    private double total(String meter, String operation) {
+        DistributionSummary summary = meterRegistry.find(meter)
+                .tags("scope", "request", "operation", operation)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    // the warm-up run and the measured run each get customers of their own from those created in setUp
+    private static long existing(long accountNo) {
+        return accountNo == FIRST_ACCOUNT_NO + 100 ? FIRST_ACCOUNT_NO : FIRST_ACCOUNT_NO + CUSTOMERS / 2;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static CustomerDTO individual(long accountNo, String email) {
+        return CustomerDTO.builder()
+                .accountNo(accountNo)
+                .fullName(FullNameDTO.builder().firstName("Query").lastName("Budget").middleName("Q").build())
+                .email(email)
+                .password("Password1")
+                .phoneNumber("1234567890")
+                .address(new AddressDTO(null, "1", "Budget St", "City", "State", "12345", "Country", null))
+                .accountType(CustomerDTO.AccountType.INDIVIDUAL)
+                .gender(Gender.MALE)
+                .build();
+    }
+}
@@ -0,0 +1,92 @@
+package com.semester4.customer_api.loadtest;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Latency histograms and error counts per operation for one load step.
+ * Latency is measured from the intended start time, so queueing behind a slow server is included.
+ */
+class LoadReport {
+    private static final long MAX_LATENCY_NANOS = TimeUnit.MINUTES.toNanos(2);
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+    private final Map<Operation, AtomicLong> overloads = new EnumMap<>(Operation.class);
+    private final Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+    private final int targetRate;
+    private double measuredSeconds;
+
+    LoadReport(int targetRate) {
+        this.targetRate = targetRate;
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(MAX_LATENCY_NANOS, 3));
+            errors.put(operation, new AtomicLong());
+            overloads.put(operation, new AtomicLong());
+        }
+    }
+
+    void record(Operation operation, long latencyNanos, boolean success) {
+        recorders.get(operation).recordValue(Math.min(latencyNanos, MAX_LATENCY_NANOS));
+        if (!success) {
+            errors.get(operation).incrementAndGet();
+        }
+    }
+
+    // the client hit its in-flight limit and never sent the request
+    void overload(Operation operation) {
+        overloads.get(operation).incrementAndGet();
+    }
+
+    void finish(double measuredSeconds) {
+        this.measuredSeconds = measuredSeconds;
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+    }
+
+    int targetRate() {
+        return targetRate;
+    }
+
+    boolean meets(double p99Millis, double maxErrorRatio) {
+        Histogram all = new Histogram(MAX_LATENCY_NANOS, 3);
+        long failed = 0;
+        for (Operation operation : Operation.values()) {
+            all.add(histograms.get(operation));
+            failed += errors.get(operation).get() + overloads.get(operation).get();
+        }
+        long attempted = all.getTotalCount() + overloads.values().stream().mapToLong(AtomicLong::get).sum();
+        return attempted > 0
+                && all.getValueAtPercentile(99) / 1e6 <= p99Millis
+                && failed <= attempted * maxErrorRatio;
+    }
+
+    String format() {
+        StringBuilder out = new StringBuilder();
+        out.append(String.format("target rate %d req/s, measured %.0f s%n", targetRate, measuredSeconds));
+        out.append(String.format("%-34s %9s %9s %8s %8s %9s %9s %9s %9s%n",
+                "endpoint", "requests", "req/s", "errors", "dropped", "p50 ms", "p99 ms", "p99.9 ms", "max ms"));
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = histograms.get(operation);
+            long dropped = overloads.get(operation).get();
+            if (histogram.getTotalCount() == 0 && dropped == 0) {
+                continue;
+            }
+            out.append(String.format("%-34s %9d %9.1f %8d %8d %9.2f %9.2f %9.2f %9.2f%n",
+                    operation.endpoint(),
+                    histogram.getTotalCount(),
+                    histogram.getTotalCount() / measuredSeconds,
+                    errors.get(operation).get(),
+                    dropped,
+                    histogram.getValueAtPercentile(50) / 1e6,
+                    histogram.getValueAtPercentile(99) / 1e6,
+                    histogram.getValueAtPercentile(99.9) / 1e6,
+                    histogram.getMaxValue() / 1e6));
+        }
+        return out.toString();
+    }
+}
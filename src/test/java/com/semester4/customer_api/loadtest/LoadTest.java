@@ -0,0 +1,191 @@
+package com.semester4.customer_api.loadtest;
+
+import com.semester4.customer_api.CustomerApiApplication;
+import com.semester4.customer_api.dto.BulkCustomerResult;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.services.CustomerService;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load test of every /customers/v1.0 operation.
+ * <p>
+ * Requests are started on a fixed schedule (constant arrival rate) whether or not earlier ones have
+ * finished, and latency is taken from the scheduled start, so a stalled server shows up in the
+ * percentiles instead of silently slowing the generator down (coordinated omission).
+ * The application is started with the "test" profile on a random port unless loadtest.url points
+ * at a running instance. Results go to loadtest.report, a plain text table meant to be diffed.
+ * <pre>
+ * mvn test-compile exec:java -Dexec.classpathScope=test \
+ *     -Dexec.mainClass=com.semester4.customer_api.loadtest.LoadTest \
+ *     -Dloadtest.rate=200 -Dloadtest.seconds=60 -Dloadtest.mix=get=60,page=15,create=10,update=10,delete=5
+ * </pre>
+ * Set loadtest.step-rate to ramp the rate by that amount per step until the p99 objective
+ * (loadtest.slo-p99-ms) or the error budget (loadtest.max-error-ratio) is missed; the last rate
+ * that passed is reported as the maximum sustainable throughput.
+ */
+public class LoadTest {
+
+    private static final int RATE = Integer.getInteger("loadtest.rate", 100);
+    private static final int STEP_RATE = Integer.getInteger("loadtest.step-rate", 0);
+    private static final int MAX_RATE = Integer.getInteger("loadtest.max-rate", 5000);
+    private static final int SECONDS = Integer.getInteger("loadtest.seconds", 30);
+    private static final int WARMUP_SECONDS = Integer.getInteger("loadtest.warmup-seconds", 5);
+    private static final int MAX_IN_FLIGHT = Integer.getInteger("loadtest.concurrency", 1000);
+    private static final int SEED_CUSTOMERS = Integer.getInteger("loadtest.customers", 5000);
+    private static final double SLO_P99_MILLIS = Double.parseDouble(System.getProperty("loadtest.slo-p99-ms", "250"));
+    private static final double MAX_ERROR_RATIO = Double.parseDouble(System.getProperty("loadtest.max-error-ratio", "0.01"));
+    private static final String MIX = System.getProperty("loadtest.mix", "get=60,page=15,create=10,update=10,delete=5");
+    private static final Path REPORT = Path.of(System.getProperty("loadtest.report", "target/loadtest/report.txt"));
+
+    public static void main(String[] args) throws Exception {
+        String url = System.getProperty("loadtest.url");
+        ConfigurableApplicationContext context = null;
+        long[] seeded;
+        if (url == null) {
+            context = new SpringApplicationBuilder(CustomerApiApplication.class)
+                    .profiles("test")
+                    .properties("server.port=0", "logging.level.root=WARN")
+                    .run();
+            url = "http://localhost:" + context.getEnvironment().getRequiredProperty("local.server.port");
+            seeded = seed(context.getBean(CustomerService.class));
+        } else {
+            seeded = parseAccountNos(System.getProperty("loadtest.account-nos", ""));
+        }
+
+        try {
+            Operation.Mix mix = Operation.Mix.parse(MIX);
+            Workload workload = new Workload(url, seeded);
+            HttpClient client = HttpClient.newBuilder()
+                    .version(HttpClient.Version.HTTP_1_1)
+                    .executor(Executors.newVirtualThreadPerTaskExecutor())
+                    .build();
+
+            StringBuilder report = new StringBuilder();
+            report.append(String.format("mix %s, warmup %d s, in-flight limit %d, p99 objective %.0f ms%n%n",
+                    MIX, WARMUP_SECONDS, MAX_IN_FLIGHT, SLO_P99_MILLIS));
+
+            Integer sustainable = null;
+            for (int rate = RATE; rate <= MAX_RATE; rate += Math.max(STEP_RATE, 1)) {
+                LoadReport step = runStep(client, workload, mix, rate);
+                report.append(step.format()).append(System.lineSeparator());
+                System.out.print(step.format());
+
+                if (STEP_RATE <= 0) {
+                    break;
+                }
+                if (!step.meets(SLO_P99_MILLIS, MAX_ERROR_RATIO)) {
+                    break;
+                }
+                sustainable = rate;
+            }
+            if (STEP_RATE > 0) {
+                String summary = "maximum sustainable rate: " + (sustainable == null ? "below " + RATE : sustainable) + " req/s";
+                report.append(summary).append(System.lineSeparator());
+                System.out.println(summary);
+            }
+
+            Files.createDirectories(REPORT.toAbsolutePath().getParent());
+            Files.writeString(REPORT, report);
+            System.out.println("report written to " + REPORT.toAbsolutePath());
+        } finally {
+            if (context != null) {
+                context.close();
+            }
+        }
+    }
+
+    private static LoadReport runStep(HttpClient client, Workload workload, Operation.Mix mix, int rate) {
+        LoadReport report = new LoadReport(rate);
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        long intervalNanos = TimeUnit.SECONDS.toNanos(1) / rate;
+        long start = System.nanoTime();
+        long measureFrom = start + TimeUnit.SECONDS.toNanos(WARMUP_SECONDS);
+        long end = measureFrom + TimeUnit.SECONDS.toNanos(SECONDS);
+
+        try (ExecutorService requests = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (long i = 0; ; i++) {
+                long intended = start + i * intervalNanos;
+                if (intended >= end) {
+                    break;
+                }
+                long wait = intended - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+
+                Operation operation = mix.pick();
+                boolean measured = intended >= measureFrom;
+                if (!inFlight.tryAcquire()) {
+                    if (measured) {
+                        report.overload(operation);
+                    }
+                    continue;
+                }
+                requests.submit(() -> {
+                    try {
+                        HttpRequest request = operation.request(workload);
+                        boolean success;
+                        try {
+                            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+                            workload.onResponse(operation, response.body());
+                            success = response.statusCode() < 500 && response.statusCode() != 401;
+                        } catch (Exception e) {
+                            success = false;
+                        }
+                        if (measured) {
+                            report.record(operation, System.nanoTime() - intended, success);
+                        }
+                    } finally {
+                        inFlight.release();
+                    }
+                });
+            }
+        }
+
+        report.finish(SECONDS);
+        return report;
+    }
+
+    private static long[] seed(CustomerService customerService) {
+        List<Customer> customers = new ArrayList<>(SEED_CUSTOMERS);
+        for (int i = 0; i < SEED_CUSTOMERS; i++) {
+            customers.add(Customer.builder()
+                    .fullName(FullName.builder().firstName("Seed").lastName("Customer").middleName("S").build())
+                    .email("seed" + i + "@example.com")
+                    .password("Password1")
+                    .phoneNumber(1234567890L)
+                    .build());
+        }
+        return customerService.addCustomers(customers, List.of()).stream()
+                .filter(result -> result.getStatus() == BulkCustomerResult.Status.CREATED)
+                .mapToLong(BulkCustomerResult::getAccountNo)
+                .toArray();
+    }
+
+    private static long[] parseAccountNos(String accountNos) {
+        if (accountNos.isBlank()) {
+            throw new IllegalArgumentException("loadtest.account-nos must list existing account numbers when loadtest.url is set");
+        }
+        String[] parts = accountNos.split(",");
+        long[] parsed = new long[parts.length];
+        for (int i = 0; i < parts.length; i++) {
+            parsed[i] = Long.parseLong(parts[i].trim());
+        }
+        return parsed;
+    }
+}
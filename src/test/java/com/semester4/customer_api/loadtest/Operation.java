@@ -0,0 +1,112 @@
+package com.semester4.customer_api.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * The /customers/v1.0 operations the load test can mix, each building one request against a {@link Workload}.
+ */
+enum Operation {
+    GET_BY_ID("get", "GET /customers/v1.0/{accountNo}") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/customers/v1.0/" + workload.existingAccountNo());
+        }
+    },
+    PAGE("page", "GET /customers/v1.0") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.get("/customers/v1.0?size=20&after=" + workload.existingAccountNo());
+        }
+    },
+    CREATE("create", "POST /customers/v1.0") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.send("POST", "/customers/v1.0", workload.newCustomerJson());
+        }
+    },
+    BATCH("batch", "POST /customers/v1.0/batch") {
+        @Override
+        HttpRequest request(Workload workload) {
+            StringBuilder body = new StringBuilder("[");
+            for (int i = 0; i < Workload.BATCH_SIZE; i++) {
+                body.append(i == 0 ? "" : ",").append(workload.newCustomerJson());
+            }
+            return workload.send("POST", "/customers/v1.0/batch", body.append(']').toString());
+        }
+    },
+    UPDATE("update", "PUT /customers/v1.0") {
+        @Override
+        HttpRequest request(Workload workload) {
+            return workload.send("PUT", "/customers/v1.0?accountNo=" + workload.existingAccountNo()
+                    + "&newEmail=" + workload.nextEmail(), null);
+        }
+    },
+    DELETE("delete", "DELETE /customers/v1.0") {
+        @Override
+        HttpRequest request(Workload workload) {
+            Long accountNo = workload.deletableAccountNo();
+            // nothing created yet, so delete an account that does not exist and measure the 404 path
+            return workload.send("DELETE", "/customers/v1.0?accountNo=" + (accountNo == null ? 9_999_999_999L : accountNo), null);
+        }
+    };
+
+    private final String key;
+    private final String endpoint;
+
+    Operation(String key, String endpoint) {
+        this.key = key;
+        this.endpoint = endpoint;
+    }
+
+    abstract HttpRequest request(Workload workload);
+
+    String endpoint() {
+        return endpoint;
+    }
+
+    static Operation byKey(String key) {
+        for (Operation operation : values()) {
+            if (operation.key.equals(key)) {
+                return operation;
+            }
+        }
+        throw new IllegalArgumentException("Unknown operation '" + key + "'");
+    }
+
+    /**
+     * Weighted operation picker parsed from e.g. "get=60,page=15,create=10,update=10,delete=5".
+     */
+    record Mix(Operation[] operations, int[] cumulativeWeights) {
+
+        static Mix parse(String spec) {
+            Map<String, String> weights = new LinkedHashMap<>();
+            for (String part : spec.split(",")) {
+                String[] keyValue = part.trim().split("=");
+                weights.put(keyValue[0].trim(), keyValue[1].trim());
+            }
+            Operation[] operations = new Operation[weights.size()];
+            int[] cumulative = new int[weights.size()];
+            int i = 0;
+            int total = 0;
+            for (Map.Entry<String, String> weight : weights.entrySet()) {
+                operations[i] = byKey(weight.getKey());
+                total += Integer.parseInt(weight.getValue());
+                cumulative[i++] = total;
+            }
+            return new Mix(operations, cumulative);
+        }
+
+        Operation pick() {
+            int roll = ThreadLocalRandom.current().nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+            for (int i = 0; i < cumulativeWeights.length; i++) {
+                if (roll < cumulativeWeights[i]) {
+                    return operations[i];
+                }
+            }
+            return operations[operations.length - 1];
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.semester4.customer_api.loadtest;
+
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Request data shared by all load test clients: seeded accounts to read and update,
+ * accounts created during the run that deletes can consume, and unique emails.
+ */
+class Workload {
+    static final int BATCH_SIZE = 20;
+
+    // admin:1234 from SecurityConfig
+    private static final String BASIC_AUTH = "Basic YWRtaW46MTIzNA==";
+    private static final Pattern ACCOUNT_NO = Pattern.compile("\"accountNo\":(\\d+)");
+
+    private final String baseUrl;
+    private final long[] seededAccountNos;
+    private final Queue<Long> createdAccountNos = new ConcurrentLinkedQueue<>();
+    private final AtomicLong emails = new AtomicLong();
+    private final long runId = System.currentTimeMillis();
+
+    Workload(String baseUrl, long[] seededAccountNos) {
+        this.baseUrl = baseUrl;
+        this.seededAccountNos = seededAccountNos;
+    }
+
+    long existingAccountNo() {
+        return seededAccountNos[ThreadLocalRandom.current().nextInt(seededAccountNos.length)];
+    }
+
+    Long deletableAccountNo() {
+        return createdAccountNos.poll();
+    }
+
+    String nextEmail() {
+        return "load" + runId + "." + emails.incrementAndGet() + "@example.com";
+    }
+
+    String newCustomerJson() {
+        return """
+                {"fullName":{"firstName":"Load","lastName":"Test","middleName":"L"},\
+                "email":"%s","password":"Password1","phoneNumber":"1234567890","accountType":"CORPORATE",\
+                "address":{"doorNo":"1","street":"Load St","city":"City","state":"State","zip":"12345","country":"Country"}}\
+                """.formatted(nextEmail()).strip();
+    }
+
+    HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+    }
+
+    HttpRequest send(String method, String path, String json) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .header("Authorization", BASIC_AUTH);
+        if (json == null) {
+            return builder.method(method, HttpRequest.BodyPublishers.noBody()).build();
+        }
+        return builder.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofString(json))
+                .build();
+    }
+
+    void onResponse(Operation operation, String body) {
+        if (operation == Operation.CREATE && body != null) {
+            Matcher matcher = ACCOUNT_NO.matcher(body);
+            if (matcher.find()) {
+                createdAccountNos.add(Long.parseLong(matcher.group(1)));
+            }
+        }
+    }
+}
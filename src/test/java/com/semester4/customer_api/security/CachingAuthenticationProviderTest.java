@@ -0,0 +1,97 @@
+package com.semester4.customer_api.security;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CachingAuthenticationProviderTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private CredentialCache credentialCache;
+    private CredentialCacheInvalidatingUserDetailsManager userDetailsManager;
+    private AtomicInteger verifications;
+    private CachingAuthenticationProvider provider;
+
+    @BeforeEach
+    void setUp() {
+        PasswordEncoder passwordEncoder = new BCryptPasswordEncoder(4);
+        meterRegistry = new SimpleMeterRegistry();
+        credentialCache = new CredentialCache(meterRegistry, Duration.ofMinutes(5), 100);
+        userDetailsManager = new CredentialCacheInvalidatingUserDetailsManager(credentialCache,
+                User.withUsername("admin").password(passwordEncoder.encode("1234")).roles("USER").build());
+
+        DaoAuthenticationProvider dao = new DaoAuthenticationProvider(passwordEncoder);
+        dao.setUserDetailsService(userDetailsManager);
+
+        verifications = new AtomicInteger();
+        AuthenticationProvider counting = new AuthenticationProvider() {
+            @Override
+            public Authentication authenticate(Authentication authentication) {
+                verifications.incrementAndGet();
+                return dao.authenticate(authentication);
+            }
+
+            @Override
+            public boolean supports(Class<?> authentication) {
+                return dao.supports(authentication);
+            }
+        };
+        provider = new CachingAuthenticationProvider(counting, credentialCache);
+    }
+
+    @Test
+    void testAuthenticate_RepeatCredentialIsServedFromCache() {
+        Authentication first = provider.authenticate(token("admin", "1234"));
+        Authentication second = provider.authenticate(token("admin", "1234"));
+
+        assertTrue(first.isAuthenticated());
+        assertSame(first, second);
+        assertEquals(1, verifications.get());
+        assertEquals(1, meterRegistry.get("cache.gets").tag("cache", "credentials").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1, meterRegistry.get("security.credentials.verification").timer().count());
+    }
+
+    @Test
+    void testAuthenticate_FailuresAreNotCached() {
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "wrong")));
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "wrong")));
+
+        assertEquals(2, verifications.get());
+    }
+
+    @Test
+    void testUserStoreChange_InvalidatesCachedCredentials() {
+        provider.authenticate(token("admin", "1234"));
+
+        userDetailsManager.deleteUser("admin");
+
+        assertThrows(BadCredentialsException.class, () -> provider.authenticate(token("admin", "1234")));
+    }
+
+    @Test
+    void testKeyFor_DoesNotContainPlaintext() {
+        String key = credentialCache.keyFor("admin", "1234");
+
+        assertFalse(key.contains("1234"));
+        assertEquals(key, credentialCache.keyFor("admin", "1234"));
+        assertNotEquals(key, credentialCache.keyFor("admin", "12345"));
+    }
+
+    private UsernamePasswordAuthenticationToken token(String username, String password) {
+        return UsernamePasswordAuthenticationToken.unauthenticated(username, password);
+    }
+}
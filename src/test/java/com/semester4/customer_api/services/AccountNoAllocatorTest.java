@@ -0,0 +1,127 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.repositories.SequenceBlockRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+// a pool of its own, small enough for a test to take every connection
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(properties = {
+        "spring.datasource.url=jdbc:h2:mem:accountno;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.hikari.maximum-pool-size=4",
+        "spring.datasource.hikari.connection-timeout=2000"
+})
+class AccountNoAllocatorTest {
+
+    @Autowired
+    private AccountNoAllocator accountNoAllocator;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private SequenceBlockRepository sequenceBlockRepository;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Test
+    void testNext_IsTenDigits() {
+        long accountNo = accountNoAllocator.next();
+
+        assertTrue(accountNo >= AccountNoAllocator.MIN_ACCOUNT_NO && accountNo <= AccountNoAllocator.MAX_ACCOUNT_NO);
+    }
+
+    @Test
+    void testNext_UniqueAcrossThreadsAndBlocks() throws Exception {
+        Set<Long> allocated = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 500;
+
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < perThread; i++) {
+                        assertTrue(allocated.add(accountNoAllocator.next()));
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+
+        assertEquals(threads * perThread, allocated.size());
+    }
+
+    @Test
+    void testNext_SkipsNumbersAlreadyStored() {
+        // the start of the next block to be reserved, as if older rows or an import had taken those numbers
+        long start = sequenceBlockRepository.currentValue(AccountNoAllocator.SEQUENCE_NAME);
+        Set<Long> stored = Set.of(start, start + 1, start + 42, start + 100);
+        stored.forEach(accountNo -> customerService.addCustomer(Customer.builder()
+                .accountNo(accountNo)
+                .fullName(FullName.builder().firstName("Taken").lastName("Number").middleName("T").build())
+                .email("taken-" + accountNo + "@account.example.com")
+                .password("Password1")
+                .build()));
+
+        Set<Long> allocated = new HashSet<>();
+        for (int i = 0; i < 400; i++) {
+            allocated.add(accountNoAllocator.next());
+        }
+
+        assertTrue(allocated.stream().anyMatch(accountNo -> accountNo > start + 100));
+        assertTrue(allocated.stream().noneMatch(stored::contains));
+    }
+
+    @Test
+    void testNext_NeedsNoPoolConnectionToReserveBlocks() throws Exception {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        int free = hikari.getMaximumPoolSize() - hikari.getHikariPoolMXBean().getActiveConnections();
+        List<Connection> held = new ArrayList<>();
+        try {
+            // callers hold every pool connection, as a burst of creating transactions would
+            for (int i = 0; i < free; i++) {
+                held.add(dataSource.getConnection());
+            }
+            Future<Long> last = CompletableFuture.supplyAsync(() -> {
+                long accountNo = 0;
+                for (int i = 0; i < 1000; i++) {
+                    accountNo = accountNoAllocator.next();
+                }
+                return accountNo;
+            });
+            assertTrue(last.get(10, TimeUnit.SECONDS) >= AccountNoAllocator.MIN_ACCOUNT_NO);
+        } finally {
+            for (Connection connection : held) {
+                connection.close();
+            }
+        }
+    }
+}
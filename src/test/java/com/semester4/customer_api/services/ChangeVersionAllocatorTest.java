@@ -0,0 +1,87 @@
+package com.semester4.customer_api.services;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class ChangeVersionAllocatorTest {
+
+    @Autowired
+    private ChangeVersionAllocator changeVersionAllocator;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void testReadersStopBelowAnOpenWriteWithoutBlockingOtherWriters() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long open = transaction.execute(status -> {
+            long version = changeVersionAllocator.next(1);
+            // another writer takes and commits its versions while this one is still open
+            long later = onOtherThread(() -> transaction.execute(inner -> changeVersionAllocator.next(5)));
+            assertTrue(later > version);
+            assertTrue(onOtherThread(changeVersionAllocator::committedLimit) <= version);
+            return version;
+        });
+
+        assertTrue(changeVersionAllocator.committedLimit() > open + 5);
+    }
+
+    @Test
+    void testRolledBackWriteReleasesItsVersions() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        long rolledBack = transaction.execute(status -> {
+            status.setRollbackOnly();
+            return changeVersionAllocator.next(3);
+        });
+
+        assertTrue(changeVersionAllocator.committedLimit() >= rolledBack + 3);
+    }
+
+    @Test
+    void testRenewsTheLeasesOfOpenWrites() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+
+        transaction.executeWithoutResult(status -> {
+            long version = changeVersionAllocator.next(1);
+            // as if the write had run past the lease timeout
+            onOtherThread(() -> (long) new JdbcTemplate(dataSource)
+                    .update("update Change_Version_Lease set Expires_At = ? where First_Version = ?",
+                            OffsetDateTime.now(ZoneOffset.UTC).minusSeconds(1), version));
+            assertTrue(onOtherThread(changeVersionAllocator::committedLimit) > version);
+
+            changeVersionAllocator.renewLeases();
+            assertTrue(onOtherThread(changeVersionAllocator::committedLimit) <= version);
+        });
+    }
+
+    private static long onOtherThread(Supplier<Long> work) {
+        try {
+            return CompletableFuture.supplyAsync(work).get(10, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
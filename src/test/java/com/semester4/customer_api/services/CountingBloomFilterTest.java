@@ -0,0 +1,48 @@
+package com.semester4.customer_api.services;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountingBloomFilterTest {
+
+    @Test
+    void testMightContain_NoFalseNegativesAndBoundedFalsePositives() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i + "@example.com");
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertTrue(filter.mightContain("user" + i + "@example.com"));
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            if (filter.mightContain("other" + i + "@example.com")) {
+                falsePositives++;
+            }
+        }
+        assertTrue(falsePositives < 200, falsePositives + " false positives in 10000 lookups");
+    }
+
+    @Test
+    void testRemove_ForgetsValueButKeepsOthers() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.add("a@example.com");
+        filter.add("b@example.com");
+
+        filter.remove("a@example.com");
+
+        assertFalse(filter.mightContain("a@example.com"));
+        assertTrue(filter.mightContain("b@example.com"));
+    }
+
+    @Test
+    void testRemove_OfUnknownValueDoesNotUnderflow() {
+        CountingBloomFilter filter = new CountingBloomFilter(100, 0.01);
+        filter.remove("never@example.com");
+        filter.add("never@example.com");
+
+        assertTrue(filter.mightContain("never@example.com"));
+    }
+}
@@ -0,0 +1,83 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.configurations.CacheConfig;
+import com.semester4.customer_api.exceptions.CustomerNotFoundException;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class CustomerCacheTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private long accountNo;
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.CUSTOMERS).clear();
+
+        Customer customer = customerService.addCustomer(Customer.builder()
+                .fullName(FullName.builder().firstName("Cache").lastName("Reader").middleName("C").build())
+                .email(System.nanoTime() + "@cache.example.com")
+                .password("Password1")
+                .phoneNumber(1234567890L)
+                .build());
+        accountNo = customer.getAccountNo();
+    }
+
+    @Test
+    void testFindCustomer_SecondLookupIsServedFromCache() {
+        Customer first = customerService.findCustomer(accountNo);
+        Customer second = customerService.findCustomer(accountNo);
+
+        assertSame(first, second);
+        assertNotNull(cacheManager.getCache(CacheConfig.CUSTOMERS).get(accountNo));
+    }
+
+    @Test
+    void testUpdateCustomer_RefreshesCachedEntry() {
+        customerService.findCustomer(accountNo);
+
+        customerService.updateCustomer(accountNo, "refreshed@cache.example.com");
+
+        assertEquals("refreshed@cache.example.com", customerService.findCustomer(accountNo).getEmail());
+    }
+
+    @Test
+    void testDeleteCustomer_EvictsCachedEntry() {
+        customerService.findCustomer(accountNo);
+
+        customerService.deleteCustomer(accountNo);
+
+        assertNull(cacheManager.getCache(CacheConfig.CUSTOMERS).get(accountNo));
+        assertThrows(CustomerNotFoundException.class, () -> customerService.findCustomer(accountNo));
+    }
+
+    @Test
+    void testCacheMetrics_AreRegistered() {
+        customerService.findCustomer(accountNo);
+        customerService.findCustomer(accountNo);
+
+        assertNotNull(meterRegistry.find("cache.gets").tag("cache", CacheConfig.CUSTOMERS).tag("result", "hit").functionCounter());
+        assertNotNull(meterRegistry.find("cache.evictions").tag("cache", CacheConfig.CUSTOMERS).functionCounter());
+    }
+}
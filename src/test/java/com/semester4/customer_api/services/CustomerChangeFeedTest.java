@@ -0,0 +1,100 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.CursorPage;
+import com.semester4.customer_api.dto.CustomerChange;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.repositories.CustomerTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class CustomerChangeFeedTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private CustomerTombstoneRepository customerTombstoneRepository;
+
+    @BeforeEach
+    void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+        customerTombstoneRepository.deleteAll();
+    }
+
+    @Test
+    void testGetChanges_ListsLatestStateAndDeletesInVersionOrder() {
+        long kept = customerService.addCustomer(customer("kept@feed.example.com")).getAccountNo();
+        long deleted = customerService.addCustomer(customer("deleted@feed.example.com")).getAccountNo();
+        customerService.updateCustomer(kept, "renamed@feed.example.com");
+        customerService.deleteCustomer(deleted);
+
+        List<CustomerChange> changes = customerService.getChanges(0, 100).getData();
+
+        assertEquals(List.of(kept, deleted), changes.stream().map(CustomerChange::accountNo).toList());
+        assertEquals("renamed@feed.example.com", changes.get(0).customer().email());
+        assertTrue(changes.get(1).deleted());
+        assertNull(changes.get(1).customer());
+        assertTrue(changes.get(0).version() < changes.get(1).version());
+        assertTrue(customerService.getChanges(changes.get(1).version(), 100).getData().isEmpty());
+    }
+
+    @Test
+    void testGetChanges_PagesByVersion() {
+        customerService.addCustomers(List.of(customer("one@feed.example.com"), customer("two@feed.example.com"),
+                customer("three@feed.example.com")), List.of());
+
+        CursorPage<CustomerChange> first = customerService.getChanges(0, 2);
+        CursorPage<CustomerChange> second = customerService.getChanges(first.getNext(), 2);
+
+        assertEquals(2, first.getData().size());
+        assertEquals(first.getData().get(1).version(), first.getNext());
+        assertEquals(1, second.getData().size());
+        assertNull(second.getNext());
+        // a bulk chunk takes consecutive versions
+        assertEquals(first.getData().get(0).version() + 2, second.getData().get(0).version());
+    }
+
+    @Test
+    void testStreamChanges_MatchesPages() {
+        long accountNo = customerService.addCustomer(customer("streamed@feed.example.com")).getAccountNo();
+        customerService.addCustomer(customer("other@feed.example.com"));
+        customerService.deleteCustomer(accountNo);
+
+        List<CustomerChange> streamed = new ArrayList<>();
+        customerService.streamChanges(0, streamed::add);
+
+        assertEquals(customerService.getChanges(0, 100).getData().stream().map(CustomerChange::version).toList(),
+                streamed.stream().map(CustomerChange::version).toList());
+        assertEquals(2, streamed.size());
+    }
+
+    private static Customer customer(String email) {
+        return Customer.builder()
+                .fullName(FullName.builder().firstName("Feed").lastName("Reader").middleName("F").build())
+                .email(email)
+                .password("Password1")
+                .build();
+    }
+}
@@ -0,0 +1,146 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.BulkCustomerResult;
+import com.semester4.customer_api.dto.CustomerPatch;
+import com.semester4.customer_api.models.Address;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class CustomerCreateStatementsTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+        // warm up the account number block and the address and outbox id pools so neither is counted below
+        customerService.createCustomer(individual("warmup@statements.example.com"),
+                List.of());
+        customerService.saveAddress(address(customerRepository.findAll().get(0)));
+    }
+
+    @Test
+    void testCreateCustomer_OneTransactionFewerStatements() {
+        Individual separate = individual("separate@statements.example.com");
+        long separateStatements = statements("addIndividual", () -> customerService.addIndividual(separate))
+                + statements("saveAddress", () -> customerService.saveAddress(address(separate)));
+
+        Individual combined = individual("combined@statements.example.com");
+        long combinedStatements = statements("createCustomer",
+                () -> customerService.createCustomer(combined, List.of(address(combined))));
+
+        assertTrue(combinedStatements < separateStatements,
+                combinedStatements + " statements in one transaction, " + separateStatements + " when saved separately");
+        // Customer, Individual, Address and outbox inserts, and on a sequence connection the change version
+        // update, its lease and the lease's release
+        assertEquals(7, combinedStatements);
+    }
+
+    @Test
+    void testCreateCustomer_RollsBackCustomerWhenAddressFails() {
+        Individual customer = individual("rollback@statements.example.com");
+        Address invalid = address(customer);
+        invalid.setCity(null);
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> customerService.createCustomer(customer, List.of(invalid)));
+        assertFalse(customerRepository.existsById(customer.getAccountNo()));
+    }
+
+    @Test
+    void testAddCustomers_RetriesTheRestOfAFailedChunk() {
+        Individual existing = customerService.addIndividual(individual("existing@statements.example.com"));
+        Individual first = individual("first@statements.example.com");
+        Individual clash = individual("clash@statements.example.com");
+        clash.setAccountNo(existing.getAccountNo());
+        Individual last = individual("last@statements.example.com");
+
+        List<BulkCustomerResult> results = customerService.addCustomers(List.of(first, clash, last),
+                List.of(address(first), address(clash), address(last)));
+
+        assertEquals(List.of(BulkCustomerResult.Status.CREATED, BulkCustomerResult.Status.FAILED,
+                BulkCustomerResult.Status.CREATED), results.stream().map(BulkCustomerResult::getStatus).toList());
+        assertTrue(customerRepository.existsById(first.getAccountNo()));
+        assertTrue(customerRepository.existsById(last.getAccountNo()));
+        assertEquals("existing@statements.example.com",
+                customerRepository.findById(existing.getAccountNo()).orElseThrow().getEmail());
+        // the warm-up address and those of the two created customers
+        assertEquals(3, addressRepository.count());
+    }
+
+    @Test
+    void testPatchCustomer_WritesWithoutReadingFirst() {
+        Individual customer = customerService.addIndividual(individual("patch@statements.example.com"));
+
+        long updateStatements = statements("updateCustomer",
+                () -> customerService.updateCustomer(customer.getAccountNo(), "updated@statements.example.com", 0L));
+
+        long[] version = new long[1];
+        long patchStatements = statements("patchCustomer", () -> version[0] = customerService.patchCustomer(
+                customer.getAccountNo(), CustomerPatch.builder().phoneNumber("01234567890").build(), 1L));
+
+        assertEquals(2L, version[0]);
+        assertTrue(patchStatements < updateStatements,
+                patchStatements + " statements to patch, " + updateStatements + " to load and save");
+        // the Customer update and the outbox insert, and the three change version statements
+        assertEquals(5, patchStatements);
+    }
+
+    // counted by the customer.sql meters, which also see the statements sent on the sequence connections
+    private long statements(String method, Runnable call) {
+        double before = total(method);
+        call.run();
+        return (long) (total(method) - before);
+    }
+
+    private double total(String method) {
+        DistributionSummary summary = meterRegistry.find("customer.sql.statements")
+                .tags("scope", "service", "operation", "CustomerService." + method)
+                .summary();
+        return summary == null ? 0 : summary.totalAmount();
+    }
+
+    private static Individual individual(String email) {
+        return Individual.builder()
+                .fullName(FullName.builder().firstName("Single").lastName("Write").middleName("S").build())
+                .email(email)
+                .password("Password1")
+                .gender(Gender.MALE)
+                .build();
+    }
+
+    private static Address address(Customer customer) {
+        return new Address(null, "12", "Main St", "City", "State", "12345", "Country", customer);
+    }
+}
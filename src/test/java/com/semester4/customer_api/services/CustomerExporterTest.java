@@ -0,0 +1,145 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.ExportProgress;
+import com.semester4.customer_api.models.Address;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Corporate;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = {"customer.export.chunk-size=2", "customer.export.buffer-size=64"})
+class CustomerExporterTest {
+
+    @Autowired
+    private CustomerExporter exporter;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @TempDir
+    private Path directory;
+
+    private long individualNo;
+
+    @BeforeEach
+    void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+        Individual individual = Individual.builder()
+                .fullName(name("Ind"))
+                .email("individual@export.example.com")
+                .password("Password1")
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.of(1990, 5, 17))
+                .build();
+        individualNo = customerService.createCustomer(individual, List.of(
+                new Address(null, "1", "Main St, North", "Springfield", "State", "12345", "Country", individual),
+                new Address(null, "2", "Side \"B\" St", "Shelbyville", "State", "12346", "Country", individual)))
+                .getAccountNo();
+        customerService.addCorporate(Corporate.builder()
+                .fullName(name("Corp"))
+                .email("corporate@export.example.com")
+                .password("Password1")
+                .companyType(CompanyType.NGO)
+                .build());
+        customerService.addCustomer(Customer.builder()
+                .fullName(name("Plain"))
+                .email("plain@export.example.com")
+                .password("Password1")
+                .build());
+    }
+
+    @Test
+    void testWriteCsv_RowPerAddressWithQuoting() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long rows = exporter.writeCsv(0, Long.MAX_VALUE, Channels.newChannel(out));
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        assertEquals(4, rows);
+        assertEquals(String.join(",", CustomerExporter.HEADER), lines.get(0));
+        assertTrue(lines.get(1).startsWith(individualNo + ",INDIVIDUAL,Ind,Exported,E,individual@export.example.com,,FEMALE,1990-05-17,,"));
+        assertTrue(lines.get(1).endsWith(",1,\"Main St, North\",Springfield,State,12345,Country"));
+        assertTrue(lines.get(2).contains(",2,\"Side \"\"B\"\" St\",Shelbyville,"));
+        assertTrue(lines.get(3).contains(",CORPORATE,Corp,") && lines.get(3).contains(",NGO,,,,,,,"));
+        assertTrue(lines.get(4).contains(",CUSTOMER,Plain,"));
+    }
+
+    @Test
+    void testExport_WritesChunksInParallelAndResumes() throws IOException {
+        ExportProgress first = new ExportProgress(directory.toString());
+        exporter.export(directory, first);
+
+        assertEquals(ExportProgress.State.COMPLETED, first.getState());
+        // two customers per chunk, plus the open ended last chunk
+        assertEquals(2, first.getTotalChunks());
+        assertEquals(4, first.getRows().get());
+        List<String> rows = exportedRows();
+        assertEquals(4, rows.size());
+
+        Files.delete(directory.resolve("customers-00001.csv.gz"));
+        ExportProgress resumed = new ExportProgress(directory.toString());
+        exporter.export(directory, resumed);
+
+        assertEquals(1, resumed.getSkippedChunks().get());
+        assertEquals(1, resumed.getWrittenChunks().get());
+        assertEquals(rows, exportedRows());
+    }
+
+    @Test
+    void testStart_RejectsPathNames() {
+        assertThrows(IllegalArgumentException.class, () -> exporter.start("../outside"));
+    }
+
+    private List<String> exportedRows() throws IOException {
+        List<String> rows = new ArrayList<>();
+        try (var files = Files.list(directory)) {
+            for (Path file : files.filter(f -> f.toString().endsWith(".csv.gz")).sorted().toList()) {
+                try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+                    List<String> lines = new String(in.readAllBytes(), StandardCharsets.UTF_8).lines().toList();
+                    rows.addAll(lines.subList(1, lines.size()));
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static FullName name(String firstName) {
+        return FullName.builder().firstName(firstName).lastName("Exported").middleName("E").build();
+    }
+}
@@ -0,0 +1,242 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.ImportProgress;
+import com.semester4.customer_api.models.Address;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Corporate;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.repositories.SequenceBlockRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = {"customer.import.chunk-size=2", "customer.import.parallelism=2",
+        "customer.import.max-record-lines=3"})
+class CustomerImporterTest {
+
+    @Autowired
+    private CustomerImporter importer;
+
+    @Autowired
+    private CustomerExporter exporter;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private SequenceBlockRepository sequenceBlockRepository;
+
+    @TempDir
+    private Path directory;
+
+    @BeforeEach
+    void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+    }
+
+    @Test
+    void testImportFile_StoresValidRowsAndReportsTheRest() throws IOException {
+        Path file = directory.resolve("legacy.csv");
+        Files.writeString(file, String.join("\r\n",
+                "email,first_name,middle_name,last_name,password,phone_number,customer_type,gender,date_of_birth,company_type,door_no,street,city,state,zip,country",
+                "ada@import.example.com,Ada,King,Lovelace,Secret123,0123456789,INDIVIDUAL,FEMALE,1815-12-10,,12,\"St James's Square,\nLondon\",London,Westminster,SW1Y,UK",
+                "ada@import.example.com,Ada,King,Again,Secret123,0123456789,,,,,,,,,,",
+                "acme@import.example.com,Acme,Co,Limited,Secret123,0123456789,CORPORATE,,,PRIVATE,,,,,,",
+                "not-an-email,Bad,B,Email,Secret123,0123456789,,,,,,,,,,",
+                "",
+                "bob@import.example.com,Bob,B,Builder,Secret123,0123456789,INDIVIDUAL,ROBOT,,,,,,,,",
+                "plain@import.example.com,Plain,P,Customer,Secret123,0123456789,,,,,,,,,,"), StandardCharsets.UTF_8);
+        Path errorFile = directory.resolve("legacy.csv" + CustomerImporter.ERROR_FILE_SUFFIX);
+        ImportProgress progress = new ImportProgress(file.toString(), errorFile.toString(), Files.size(file));
+
+        importer.importFile(file, errorFile, progress);
+
+        assertEquals(ImportProgress.State.COMPLETED, progress.getState(), progress.getError());
+        assertEquals(3, progress.getImportedRows().get());
+        assertEquals(3, progress.getFailedRows().get());
+        assertEquals(Files.size(file), progress.getBytesRead().get());
+        assertEquals(0L, progress.getEtaSeconds());
+
+        Map<String, Customer> customers = customerRepository.findAll().stream()
+                .collect(Collectors.toMap(Customer::getEmail, Function.identity()));
+        Individual ada = (Individual) customers.get("ada@import.example.com");
+        assertEquals("Lovelace", ada.getFullName().getLastName());
+        assertEquals(LocalDate.of(1815, 12, 10), ada.getDateOfBirth());
+        assertEquals(List.of("St James's Square,\nLondon"),
+                addressRepository.findAll().stream().map(Address::getStreet).toList());
+        assertEquals(CompanyType.PRIVATE, ((Corporate) customers.get("acme@import.example.com")).getCompanyType());
+        assertEquals(Customer.class, customers.get("plain@import.example.com").getClass());
+
+        // chunks finish in any order, so only the header line has a fixed place
+        List<String> errors = Files.readAllLines(errorFile, StandardCharsets.UTF_8);
+        assertEquals("line,error,record", errors.get(0));
+        assertEquals(4, errors.size());
+        assertTrue(errors.contains("4,Customer with email ada@import.example.com already exists,"
+                + "\"ada@import.example.com,Ada,King,Again,Secret123,0123456789,,,,,,,,,,\""));
+        assertTrue(errors.stream().anyMatch(error -> error.startsWith("6,Enter valid mail address,")));
+        assertTrue(errors.stream().anyMatch(error -> error.startsWith("8,Invalid gender 'ROBOT',")));
+    }
+
+    @Test
+    void testImportFile_RejectsTheLineOfAStrayQuoteAndReadsOn() throws IOException {
+        Path file = directory.resolve("stray.csv");
+        StringBuilder csv = new StringBuilder("email,first_name,middle_name,last_name,phone_number\n");
+        csv.append("obrien@import.example.com,Pat,J,O\"Brien,0123456789\n");
+        for (int i = 0; i < 5; i++) {
+            csv.append("reader").append(i).append("@import.example.com,Read,R,On,0123456789\n");
+        }
+        Files.writeString(file, csv, StandardCharsets.UTF_8);
+        Path errorFile = directory.resolve("stray.csv" + CustomerImporter.ERROR_FILE_SUFFIX);
+        ImportProgress progress = new ImportProgress(file.toString(), errorFile.toString(), Files.size(file));
+
+        importer.importFile(file, errorFile, progress);
+
+        assertEquals(ImportProgress.State.COMPLETED, progress.getState(), progress.getError());
+        assertEquals(5, progress.getImportedRows().get());
+        assertEquals(1, progress.getFailedRows().get());
+        assertEquals(5, customerRepository.count());
+        List<String> errors = Files.readAllLines(errorFile, StandardCharsets.UTF_8);
+        assertEquals(2, errors.size());
+        assertTrue(errors.get(1).startsWith("2,Unterminated quoted field,"));
+    }
+
+    @Test
+    void testImportFile_ReadsGzipAndRejectsMissingColumns() throws IOException {
+        Path file = directory.resolve("legacy.csv.gz");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(file))) {
+            out.write("first_name,last_name,phone_number\nAda,Lovelace,0123456789\n".getBytes(StandardCharsets.UTF_8));
+        }
+        Path errorFile = directory.resolve("legacy.csv.gz" + CustomerImporter.ERROR_FILE_SUFFIX);
+        ImportProgress progress = new ImportProgress(file.toString(), errorFile.toString(), Files.size(file));
+
+        importer.importFile(file, errorFile, progress);
+
+        assertEquals(ImportProgress.State.FAILED, progress.getState());
+        assertEquals("The header has no column email", progress.getError());
+        assertEquals(0, customerRepository.count());
+    }
+
+    @Test
+    void testImportFile_LoadsAnExportWithSeveralAddressesPerCustomer() throws IOException {
+        long plainNo = customerService.addCustomer(Customer.builder()
+                .fullName(name("Plain"))
+                .email("plain@import.example.com")
+                .password("Secret123")
+                .phoneNumber(1234567890L)
+                .build()).getAccountNo();
+        Individual ada = Individual.builder()
+                .fullName(name("Ada"))
+                .email("ada@import.example.com")
+                .password("Secret123")
+                .phoneNumber(1234567890L)
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.of(1815, 12, 10))
+                .build();
+        // with chunks of two, the second address row crosses the first chunk boundary
+        long adaNo = customerService.createCustomer(ada, List.of(
+                new Address(null, "1", "Main St", "London", "Westminster", "SW1Y", "UK", ada),
+                new Address(null, "2", "Side St", "Bath", "Somerset", "BA1", "UK", ada))).getAccountNo();
+        customerService.addCorporate(Corporate.builder()
+                .fullName(name("Acme"))
+                .email("acme@import.example.com")
+                .password("Secret123")
+                .phoneNumber(1234567890L)
+                .companyType(CompanyType.NGO)
+                .build());
+        Path file = directory.resolve("export.csv");
+        try (FileChannel out = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            assertEquals(4, exporter.writeCsv(0L, Long.MAX_VALUE, out));
+        }
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+        Path errorFile = directory.resolve("export.csv" + CustomerImporter.ERROR_FILE_SUFFIX);
+        ImportProgress progress = new ImportProgress(file.toString(), errorFile.toString(), Files.size(file));
+
+        importer.importFile(file, errorFile, progress);
+
+        assertEquals(ImportProgress.State.COMPLETED, progress.getState(), progress.getError());
+        assertEquals(4, progress.getImportedRows().get(), Files.readString(errorFile));
+        assertEquals(0, progress.getFailedRows().get());
+        assertEquals(3, customerRepository.count());
+        assertEquals(Gender.FEMALE, ((Individual) customerRepository.findById(adaNo).orElseThrow()).getGender());
+        assertEquals(List.of("London", "Bath"), addressRepository.findAll().stream()
+                .filter(address -> address.getCustomer().getAccountNo() == adaNo)
+                .map(Address::getCity)
+                .toList());
+        // a random password the customer has to reset
+        assertTrue(customerRepository.findById(plainNo).orElseThrow().getPassword()
+                .matches("^(?=.*\\d)(?=.*[a-z])(?=.*[A-Z]).{10}$"));
+    }
+
+    @Test
+    void testImportFile_KeepsFileAccountNumbersOutOfLaterCreates() throws IOException {
+        // legacy numbers beyond the blocks reserved so far
+        long start = sequenceBlockRepository.currentValue(AccountNoAllocator.SEQUENCE_NAME);
+        Path file = directory.resolve("numbered.csv");
+        Files.writeString(file, String.join("\n",
+                "account_no,first_name,middle_name,last_name,email,phone_number",
+                start + ",Ada,King,Lovelace,ada@import.example.com,0123456789",
+                (start + 7) + ",Bob,B,Builder,bob@import.example.com,0123456789"), StandardCharsets.UTF_8);
+        Path errorFile = directory.resolve("numbered.csv" + CustomerImporter.ERROR_FILE_SUFFIX);
+        importer.importFile(file, errorFile, new ImportProgress(file.toString(), errorFile.toString(), Files.size(file)));
+        assertTrue(customerRepository.existsById(start + 7));
+
+        // enough creates to run through the block holding the imported numbers
+        for (int i = 0; i < 250; i++) {
+            Customer created = customerService.addCustomer(Customer.builder()
+                    .fullName(name("New" + i))
+                    .email("new" + i + "@import.example.com")
+                    .password("Secret123")
+                    .build());
+            assertNotEquals(start, created.getAccountNo());
+            assertNotEquals(start + 7, created.getAccountNo());
+        }
+        assertEquals(252, customerRepository.count());
+    }
+
+    @Test
+    void testStart_RejectsPathsAndMissingFiles() {
+        assertThrows(IllegalArgumentException.class, () -> importer.start("../legacy.csv"));
+        assertThrows(IllegalArgumentException.class, () -> importer.start("missing.csv"));
+    }
+
+    private static FullName name(String firstName) {
+        return FullName.builder().firstName(firstName).lastName("Imported").middleName("M").build();
+    }
+}
@@ -1,17 +1,24 @@
 package com.semester4.customer_api.services;
 
+import com.semester4.customer_api.dto.CursorPage;
+import com.semester4.customer_api.dto.CustomerSummary;
 import com.semester4.customer_api.exceptions.CustomerNotFoundException;
 import com.semester4.customer_api.models.*;
 import com.semester4.customer_api.repositories.AddressRepository;
 import com.semester4.customer_api.repositories.CorporateRepository;
 import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.repositories.CustomerTombstoneRepository;
 import com.semester4.customer_api.repositories.IndividualRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -36,6 +43,33 @@ class CustomerServiceTest {
     @Mock
     private CorporateRepository corporateRepository;
 
+    @Mock
+    private AccountNoAllocator accountNoAllocator;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CustomerEmailFilter customerEmailFilter;
+
+    @Mock
+    private CustomerOutbox customerOutbox;
+
+    @Mock
+    private CustomerTombstoneRepository customerTombstoneRepository;
+
+    @Mock
+    private ChangeVersionAllocator changeVersionAllocator;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private CustomerRowDeleter customerRowDeleter;
+
+    @Mock
+    private CustomerStorageMigrator customerStorageMigrator;
+
     @InjectMocks
     private CustomerServiceImpl customerService;
 
@@ -95,8 +129,10 @@ class CustomerServiceTest {
     @Test
     void testAddCustomer_WithoutAccountNo() {
         customer.setAccountNo(null);
+        when(accountNoAllocator.next()).thenReturn(1000000000L);
         Customer savedCustomer = Customer.builder()
                 .accountNo(1000000000L) // Mock generated
+                .changeVersion(0L)
                 .fullName(customer.getFullName())
                 .email(customer.getEmail())
                 .password(customer.getPassword())
@@ -124,8 +160,10 @@ class CustomerServiceTest {
     @Test
     void testAddIndividual_WithoutAccountNo() {
         individual.setAccountNo(null);
+        when(accountNoAllocator.next()).thenReturn(1000000001L);
         Individual savedIndividual = Individual.builder()
                 .accountNo(1000000001L)
+                .changeVersion(0L)
                 .fullName(individual.getFullName())
                 .email(individual.getEmail())
                 .password(individual.getPassword())
@@ -154,8 +192,10 @@ class CustomerServiceTest {
     @Test
     void testAddCorporate_WithoutAccountNo() {
         corporate.setAccountNo(null);
+        when(accountNoAllocator.next()).thenReturn(1000000002L);
         Corporate savedCorporate = Corporate.builder()
                 .accountNo(1000000002L)
+                .changeVersion(0L)
                 .fullName(corporate.getFullName())
                 .email(corporate.getEmail())
                 .password(corporate.getPassword())
@@ -191,6 +231,28 @@ class CustomerServiceTest {
         verify(customerRepository).findAll();
     }
 
+    @Test
+    void testGetCustomers_Page() {
+        when(customerRepository.findByAccountNoGreaterThanOrderByAccountNoAsc(0L, Limit.of(3)))
+                .thenReturn(List.of(customer, individual, corporate));
+
+        CursorPage<Customer> result = customerService.getCustomers(null, 2);
+
+        assertEquals(List.of(customer, individual), result.getData());
+        assertEquals(individual.getAccountNo(), result.getNext());
+    }
+
+    @Test
+    void testGetCustomers_LastPage() {
+        when(customerRepository.findByAccountNoGreaterThanOrderByAccountNoAsc(1234567890L, Limit.of(3)))
+                .thenReturn(List.of(individual, corporate));
+
+        CursorPage<Customer> result = customerService.getCustomers(1234567890L, 2);
+
+        assertEquals(List.of(individual, corporate), result.getData());
+        assertNull(result.getNext());
+    }
+
     @Test
     void testUpdateCustomer_Success() {
         when(customerRepository.findById(1234567890L)).thenReturn(Optional.of(customer));
@@ -204,6 +266,16 @@ class CustomerServiceTest {
         verify(customerRepository).save(customer);
     }
 
+    @Test
+    void testUpdateCustomer_StaleVersion() {
+        customer.setVersion(3L);
+        when(customerRepository.findById(1234567890L)).thenReturn(Optional.of(customer));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class,
+                () -> customerService.updateCustomer(1234567890L, "new.email@example.com", 2L));
+        verify(customerRepository, never()).save(any());
+    }
+
     @Test
     void testUpdateCustomer_NotFound() {
         when(customerRepository.findById(9999999999L)).thenReturn(Optional.empty());
@@ -217,24 +289,28 @@ class CustomerServiceTest {
 
     @Test
     void testDeleteCustomer_Success() {
-        when(customerRepository.findById(1234567890L)).thenReturn(Optional.of(customer));
+        when(customerRepository.findSummaries(List.of(1234567890L))).thenReturn(List.of(new CustomerSummary(
+                1234567890L, customer.getFullName(), customer.getEmail(), customer.getPhoneNumber())));
+        when(customerRowDeleter.delete(List.of(1234567890L))).thenReturn(1);
 
         boolean result = customerService.deleteCustomer(1234567890L);
 
         assertTrue(result);
-        verify(customerRepository).findById(1234567890L);
-        verify(customerRepository).delete(customer);
+        verify(addressRepository).deleteByAccountNos(List.of(1234567890L));
+        verify(customerRowDeleter).delete(List.of(1234567890L));
+        verify(customerRepository, never()).findById(any());
+        verify(customerOutbox).record(CustomerChangedEvent.deleted(1234567890L, 0L, customer.getEmail()));
     }
 
     @Test
     void testDeleteCustomer_NotFound() {
-        when(customerRepository.findById(9999999999L)).thenReturn(Optional.empty());
+        when(customerRepository.findSummaries(List.of(9999999999L))).thenReturn(List.of());
 
         boolean result = customerService.deleteCustomer(9999999999L);
 
         assertFalse(result);
-        verify(customerRepository).findById(9999999999L);
-        verify(customerRepository, never()).delete(any());
+        verify(customerRowDeleter, never()).delete(any());
+        verify(customerOutbox, never()).record(any());
     }
 
     @Test
@@ -0,0 +1,217 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.CustomerPatch;
+import com.semester4.customer_api.dto.MigrationProgress;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Corporate;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import com.semester4.customer_api.models.StorageLayout;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = "customer.storage.migration.chunk-size=2")
+class CustomerStorageMigratorTest {
+
+    @Autowired
+    private CustomerStorageMigrator migrator;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private long individualNo;
+    private long corporateNo;
+
+    @BeforeEach
+    void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+
+        individualNo = customerService.addIndividual(Individual.builder()
+                .fullName(name("Ind"))
+                .email("individual@migration.example.com")
+                .password("Password1")
+                .gender(Gender.FEMALE)
+                .dateOfBirth(LocalDate.of(1990, 5, 17))
+                .build()).getAccountNo();
+        corporateNo = customerService.addCorporate(Corporate.builder()
+                .fullName(name("Corp"))
+                .email("corporate@migration.example.com")
+                .password("Password1")
+                .companyType(CompanyType.NGO)
+                .build()).getAccountNo();
+        customerService.addCustomer(Customer.builder()
+                .fullName(name("Plain"))
+                .email("plain@migration.example.com")
+                .password("Password1")
+                .build());
+    }
+
+    @Test
+    void testMigrateToSingleTable_CopiesSubtypeColumnsInChunks() {
+        MigrationProgress progress = new MigrationProgress(StorageLayout.SINGLE_TABLE);
+        migrator.migrate(progress);
+
+        assertEquals(MigrationProgress.State.COMPLETED, progress.getState());
+        assertEquals(3, progress.getTotalRows());
+        assertEquals(3, progress.getScannedRows());
+        assertEquals(2, progress.getChunks());
+        assertEquals(100.0, progress.getPercentComplete());
+
+        assertEquals(List.of("INDIVIDUAL", "FEMALE", "1990-05-17"),
+                row("select Customer_Type, Gender, cast(DOB as varchar) from Customer where Account_No = " + individualNo));
+        assertEquals(List.of("CORPORATE", "NGO"),
+                row("select Customer_Type, Company_Type from Customer where Account_No = " + corporateNo));
+    }
+
+    @Test
+    void testMigrateToJoined_RecreatesMissingSubtypeRows() {
+        migrator.migrate(new MigrationProgress(StorageLayout.SINGLE_TABLE));
+        // as if the individual had been written by an instance running the single table layout
+        execute("delete from Individual where Account_No = " + individualNo);
+
+        MigrationProgress progress = new MigrationProgress(StorageLayout.JOINED);
+        migrator.migrate(progress);
+
+        assertEquals(MigrationProgress.State.COMPLETED, progress.getState());
+        assertEquals(1, progress.getCopiedRows());
+        assertEquals(List.of("FEMALE", "1990-05-17"),
+                row("select Gender, cast(DOB as varchar) from Individual where Account_No = " + individualNo));
+        assertInstanceOf(Individual.class, customerRepository.findById(individualNo).orElseThrow());
+    }
+
+    @Test
+    void testMigrateToSingleTable_AgainCopiesOnlyChangedRows() {
+        migrator.migrate(new MigrationProgress(StorageLayout.SINGLE_TABLE));
+        // written through the joined layout while it still serves
+        execute("update Corporate set Company_Type = 'PRIVATE' where Account_No = " + corporateNo);
+
+        MigrationProgress progress = new MigrationProgress(StorageLayout.SINGLE_TABLE);
+        migrator.migrate(progress);
+
+        assertEquals(1, progress.getCopiedRows());
+        assertEquals(List.of("CORPORATE", "PRIVATE"),
+                row("select Customer_Type, Company_Type from Customer where Account_No = " + corporateNo));
+    }
+
+    @Test
+    void testMigrateToJoined_UpdatesExistingSubtypeRows() {
+        migrator.migrate(new MigrationProgress(StorageLayout.SINGLE_TABLE));
+        // as if patched by an instance running the single table layout
+        execute("update Customer set Gender = 'MALE' where Account_No = " + individualNo);
+
+        MigrationProgress progress = new MigrationProgress(StorageLayout.JOINED);
+        migrator.migrate(progress);
+
+        assertEquals(1, progress.getCopiedRows());
+        assertEquals(List.of("MALE", "1990-05-17"),
+                row("select Gender, cast(DOB as varchar) from Individual where Account_No = " + individualNo));
+    }
+
+    @Test
+    void testStart_RefusesTheServedLayout() {
+        // the test profile serves the joined layout, whose rows are the current ones
+        assertEquals(StorageLayout.JOINED, migrator.servingLayout());
+        assertThrows(IllegalStateException.class, () -> migrator.start(StorageLayout.JOINED));
+    }
+
+    @Test
+    void testMirror_WritesTheOtherLayoutWhileDualWriting() {
+        CustomerStorageMigrator target = AopTestUtils.getTargetObject(migrator);
+        ReflectionTestUtils.setField(target, "dualWrite", true);
+        try {
+            migrator.afterSingletonsInstantiated();
+            long accountNo = customerService.addIndividual(Individual.builder()
+                    .fullName(name("Dual"))
+                    .email("dual@migration.example.com")
+                    .password("Password1")
+                    .gender(Gender.OTHER)
+                    .dateOfBirth(LocalDate.of(2001, 2, 3))
+                    .build()).getAccountNo();
+            assertEquals(List.of("INDIVIDUAL", "OTHER", "2001-02-03"),
+                    row("select Customer_Type, Gender, cast(DOB as varchar) from Customer where Account_No = " + accountNo));
+
+            customerService.patchCustomer(accountNo, CustomerPatch.builder().gender(Gender.MALE).build(), null);
+            assertEquals(List.of("INDIVIDUAL", "MALE", "2001-02-03"),
+                    row("select Customer_Type, Gender, cast(DOB as varchar) from Customer where Account_No = " + accountNo));
+        } finally {
+            ReflectionTestUtils.setField(target, "dualWrite", false);
+        }
+    }
+
+    @Test
+    void testMigrate_LetsTheSingleTableLayoutDeleteFromCustomerAlone() {
+        migrator.migrate(new MigrationProgress(StorageLayout.SINGLE_TABLE));
+
+        // the single table layout knows nothing of the Individual table
+        execute("delete from Customer where Account_No = " + individualNo);
+
+        assertEquals(0L, ((Number) single("select count(*) from Individual")).longValue());
+    }
+
+    @Test
+    void testContract_DropsTheColumnsOfTheLayoutNotServed() {
+        migrator.migrate(new MigrationProgress(StorageLayout.SINGLE_TABLE));
+
+        migrator.contract();
+
+        assertEquals(0L, ((Number) single("select count(*) from information_schema.columns "
+                + "where lower(table_name) = 'customer' and lower(column_name) in ('gender', 'dob', 'company_type')"))
+                .longValue());
+        assertInstanceOf(Individual.class, customerRepository.findById(individualNo).orElseThrow());
+    }
+
+    private List<Object> row(String sql) {
+        Object[] row = new TransactionTemplate(transactionManager)
+                .execute(status -> (Object[]) entityManager.createNativeQuery(sql).getSingleResult());
+        return List.of(row);
+    }
+
+    private Object single(String sql) {
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> entityManager.createNativeQuery(sql).getSingleResult());
+    }
+
+    private void execute(String sql) {
+        new TransactionTemplate(transactionManager)
+                .executeWithoutResult(status -> entityManager.createNativeQuery(sql).executeUpdate());
+    }
+
+    private static FullName name(String firstName) {
+        return FullName.builder().firstName(firstName).lastName("Migrated").middleName("M").build();
+    }
+}
@@ -0,0 +1,140 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.exceptions.DuplicateCustomerException;
+import com.semester4.customer_api.models.Customer;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.OutboxEvent;
+import com.semester4.customer_api.repositories.AddressRepository;
+import com.semester4.customer_api.repositories.CustomerRepository;
+import com.semester4.customer_api.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+@TestPropertySource(properties = "customer.outbox.batch-size=2")
+class OutboxRelayTest {
+
+    @Autowired
+    private OutboxRelay relay;
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private AddressRepository addressRepository;
+
+    @Autowired
+    private OutboxSink outboxSink;
+
+    private final List<OutboxEvent> published = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        addressRepository.deleteAll();
+        customerRepository.deleteAll();
+        outboxEventRepository.deleteAll();
+        ReflectionTestUtils.setField(relay, "outboxSink", (OutboxSink) published::addAll);
+        // forget the backoff a previous test may have left behind
+        ReflectionTestUtils.setField(relay, "retryAt", System.nanoTime());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.setField(relay, "outboxSink", outboxSink);
+    }
+
+    @Test
+    void testCustomerWrites_RecordOutboxEvents() {
+        long accountNo = customerService.addCustomer(customer("first@outbox.example.com")).getAccountNo();
+        customerService.updateCustomer(accountNo, "second@outbox.example.com");
+        customerService.deleteCustomer(accountNo);
+
+        List<OutboxEvent> events = outboxEventRepository.findAll().stream()
+                .sorted(Comparator.comparing(OutboxEvent::getId))
+                .toList();
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), events.stream().map(OutboxEvent::getType).toList());
+        assertTrue(events.stream().allMatch(event -> event.getAccountNo() == accountNo));
+        assertTrue(events.get(1).getPayload().contains("\"previousEmail\":\"first@outbox.example.com\""));
+    }
+
+    @Test
+    void testRejectedWrite_RecordsNoEvent() {
+        customerService.createCustomer(customer("taken@outbox.example.com"), List.of());
+
+        assertThrows(DuplicateCustomerException.class,
+                () -> customerService.createCustomer(customer("taken@outbox.example.com"), List.of()));
+
+        assertEquals(1, outboxEventRepository.count());
+    }
+
+    @Test
+    void testDrain_PublishesInAccountOrderAndRemovesEvents() {
+        long first = customerService.addCustomer(customer("a@outbox.example.com")).getAccountNo();
+        long second = customerService.addCustomer(customer("b@outbox.example.com")).getAccountNo();
+        customerService.updateCustomer(first, "c@outbox.example.com");
+
+        relay.drain();
+
+        // batches of two: the second change of the first customer comes in the next batch
+        assertEquals(List.of(first, second, first), published.stream().map(OutboxEvent::getAccountNo).toList());
+        assertEquals(List.of("CREATED", "CREATED", "UPDATED"), published.stream().map(OutboxEvent::getType).toList());
+        assertEquals(0, outboxEventRepository.count());
+    }
+
+    @Test
+    void testDrain_PublishesEachAccountInChangeVersionOrder() {
+        // ids come from per-instance blocks, so a later change can have the lower id
+        Instant now = Instant.now();
+        outboxEventRepository.save(new OutboxEvent(null, 1234567890L, 30L, "DELETED", "{}", now));
+        outboxEventRepository.save(new OutboxEvent(null, 1234567890L, 10L, "CREATED", "{}", now));
+        outboxEventRepository.save(new OutboxEvent(null, 1234567890L, 20L, "UPDATED", "{}", now));
+
+        relay.drain();
+
+        assertEquals(List.of("CREATED", "UPDATED", "DELETED"), published.stream().map(OutboxEvent::getType).toList());
+    }
+
+    @Test
+    void testDrain_KeepsEventsWhenSinkFails() {
+        customerService.addCustomer(customer("kept@outbox.example.com"));
+        ReflectionTestUtils.setField(relay, "outboxSink", (OutboxSink) events -> {
+            throw new IOException("broker unavailable");
+        });
+
+        relay.drain();
+
+        assertEquals(1, outboxEventRepository.count());
+        assertTrue(relay.backoff(1).compareTo(relay.backoff(2)) < 0);
+    }
+
+    private static Customer customer(String email) {
+        return Customer.builder()
+                .fullName(FullName.builder().firstName("Out").lastName("Box").middleName("O").build())
+                .email(email)
+                .password("Password1")
+                .build();
+    }
+}
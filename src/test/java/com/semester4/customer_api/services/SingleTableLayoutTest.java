@@ -0,0 +1,81 @@
+package com.semester4.customer_api.services;
+
+import com.semester4.customer_api.dto.CorporateSummary;
+import com.semester4.customer_api.dto.CursorPage;
+import com.semester4.customer_api.dto.CustomerPatch;
+import com.semester4.customer_api.dto.CustomerType;
+import com.semester4.customer_api.exceptions.InvalidCustomerException;
+import com.semester4.customer_api.models.CompanyType;
+import com.semester4.customer_api.models.Corporate;
+import com.semester4.customer_api.models.FullName;
+import com.semester4.customer_api.models.Gender;
+import com.semester4.customer_api.models.Individual;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles({"test", "single-table"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class SingleTableLayoutTest {
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    void testSubtypesAreStoredInTheCustomerTable() {
+        long individualNo = customerService.addIndividual(Individual.builder()
+                .fullName(FullName.builder().firstName("Single").lastName("Table").middleName("S").build())
+                .email("individual@single.example.com")
+                .password("Password1")
+                .gender(Gender.MALE)
+                .build()).getAccountNo();
+        long corporateNo = customerService.addCorporate(Corporate.builder()
+                .fullName(FullName.builder().firstName("Single").lastName("Table").middleName("S").build())
+                .email("corporate@single.example.com")
+                .password("Password1")
+                .companyType(CompanyType.GOVT)
+                .build()).getAccountNo();
+
+        assertEquals(Gender.MALE, assertInstanceOf(Individual.class, customerService.findCustomer(individualNo)).getGender());
+        assertInstanceOf(Corporate.class, customerService.findCustomer(corporateNo));
+
+        CursorPage<?> corporates = customerService.getCustomerSummaries(CustomerType.CORPORATE, null, 10);
+        assertEquals(1, corporates.getData().size());
+        assertEquals(CompanyType.GOVT, ((CorporateSummary) corporates.getData().get(0)).companyType());
+
+        Number subtypeTables = (Number) entityManager.createNativeQuery(
+                "select count(*) from information_schema.tables where upper(table_name) in ('INDIVIDUAL', 'CORPORATE')")
+                .getSingleResult();
+        assertEquals(0, subtypeTables.intValue());
+    }
+
+    @Test
+    void testPatchWritesSubtypeColumnsOfTheMatchingTypeOnly() {
+        long individualNo = customerService.addIndividual(Individual.builder()
+                .fullName(FullName.builder().firstName("Single").lastName("Patch").middleName("S").build())
+                .email("patch@single.example.com")
+                .password("Password1")
+                .gender(Gender.MALE)
+                .build()).getAccountNo();
+
+        assertEquals(1L, customerService.patchCustomer(individualNo, CustomerPatch.builder().gender(Gender.OTHER).build(), null));
+        assertEquals(Gender.OTHER, ((Individual) customerService.findCustomer(individualNo)).getGender());
+
+        // the row is in the Customer table, but it is no corporate
+        assertThrows(InvalidCustomerException.class, () -> customerService.patchCustomer(individualNo,
+                CustomerPatch.builder().companyType(CompanyType.NGO).build(), null));
+        assertEquals(1L, customerService.findCustomerVersion(individualNo));
+
+        assertTrue(customerService.deleteCustomer(individualNo));
+        assertNull(customerService.findCustomerVersion(individualNo));
+    }
+}